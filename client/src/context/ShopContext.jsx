@@ -36,6 +36,7 @@ const ShopContextProvider = ({ children }) => {
   }); // State lưu trữ thông tin người dùng đã đăng nhập
   const [isAdmin, setIsAdmin] = useState(false); // State kiểm tra xem người dùng hiện tại có phải là admin hay không
   const [cartItems, setCartItems] = useState({}); // State lưu trữ dữ liệu giỏ hàng của người dùng
+  const [cartProducts, setCartProducts] = useState({}); // Thông tin rút gọn (tên, ảnh, giá) của các sản phẩm trong giỏ hàng, theo id
   const [searchQuery, setSearchQuery] = useState(""); //State lưu trữ chuỗi tìm kiếm hiện tại của người dùng.
 
   // Hàm tải sản phẩm từ backend (API Call)
@@ -69,6 +70,23 @@ const ShopContextProvider = ({ children }) => {
     }
   };
 
+  // Tải thông tin các sản phẩm trong giỏ hàng bằng một lần gọi /api/product/batch
+  // thay vì phụ thuộc vào toàn bộ danh sách sản phẩm
+  const fetchCartProducts = async (ids) => {
+    try {
+      const { data } = await axios.post("/api/product/batch", { ids });
+      if (data.success) {
+        const byId = {};
+        data.data.products.forEach((product) => {
+          byId[product._id] = product;
+        });
+        setCartProducts(byId);
+      }
+    } catch (error) {
+      console.error("Error fetching cart products:", error);
+    }
+  };
+
   // Xử lý xác thực người dùng, admin và chức năng thêm giỏ hàng khi ứng dụng khởi động
   // Kiểm tra trạng thái người dùng có đăng nhập hay không và xử lý việc đăng xuất
   const fetchUser = async () => {
@@ -222,7 +240,7 @@ const ShopContextProvider = ({ children }) => {
   const getCartAmount = () => {
     let total = 0;
     for (const itemId in cartItems) { // lặp qua từng itemId
-      const product = products.find((p) => p._id === itemId); // Tìm sản phẩm tương ứng trong mảng products dựa trên itemId để lấy giá khuyến mãi
+      const product = cartProducts[itemId]; // Lấy sản phẩm tương ứng trong cartProducts để lấy giá khuyến mãi
       if (!product) continue;
       for (const size in cartItems[itemId]) {
         total += product.offerPrice * cartItems[itemId][size];
@@ -239,6 +257,16 @@ const ShopContextProvider = ({ children }) => {
     fetchAdmin(); // Kiểm tra trạng thái admin
   }, []); // Chỉ chạy một lần khi component được mount
 
+  // Chỉ tải lại khi tập sản phẩm trong giỏ thay đổi, không phải khi đổi số lượng
+  const cartProductIds = Object.keys(cartItems || {}).sort().join(",");
+  useEffect(() => {
+    if (cartProductIds) {
+      fetchCartProducts(cartProductIds.split(","));
+    } else {
+      setCartProducts({});
+    }
+  }, [cartProductIds]);
+
   // Đối tượng value chứa tất cả dữ liệu và hàm sẽ được cung cấp cho các component con thông qua Context
   // Bất kỳ component nào sử dụng useContext(ShopContext) đều có thể truy cập bất kỳ thuộc tính nào trong đối tượng value này.
   const value = {
@@ -258,6 +286,7 @@ const ShopContextProvider = ({ children }) => {
     setIsAdmin,
     cartItems,
     setCartItems,
+    cartProducts,
     searchQuery,
     setSearchQuery,
     addToCart,
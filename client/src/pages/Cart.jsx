@@ -9,7 +9,7 @@ import { useLocation } from "react-router-dom"; // truy cập thông tin về UR
 const Cart = () => {
   const {
     navigate,
-    products,
+    cartProducts,
     currency,
     cartItems,
     updateQuantity,
@@ -20,13 +20,14 @@ const Cart = () => {
   const isOrderPage = location.pathname.includes("place-order"); // kiểm tra xem người dùng có đang ở trang đặt hàng hay không
 
 
-  // Hàm gọi mỗi khi products hoặc cartItems thay đổi
+  // Hàm gọi mỗi khi cartProducts hoặc cartItems thay đổi
+  // Chỉ hiển thị những sản phẩm đã tải được thông tin từ /api/product/batch
   useEffect(() => {
-    if (products.length > 0) {
+    if (Object.keys(cartProducts).length > 0) {
       const tempData = [];
       for (const itemId in cartItems) {
         for (const size in cartItems[itemId]) {
-          if (cartItems[itemId][size] > 0) {
+          if (cartItems[itemId][size] > 0 && cartProducts[itemId]) {
             tempData.push({
               _id: itemId,
               size: size,
@@ -36,7 +37,7 @@ const Cart = () => {
       }
       setCartData(tempData);
     }
-  }, [products, cartItems]);
+  }, [cartProducts, cartItems]);
 
   // Quản lý số lượng
   // gọi hàm updateQuantity từ Context để cập nhật số lượng sản phẩm trong giỏ hàng
@@ -54,7 +55,7 @@ const Cart = () => {
   };
 
   // kiểm tra nếu có sản phẩm trong giỏ hàng và hiển thị giao diện giỏ hàng
-  return products.length > 0 && cartItems ? (
+  return Object.keys(cartProducts).length > 0 && cartItems ? (
     <div className="max-padd-container py-16 pt-28 bg-primary">
       {/* nội dung giỏ hàng */}
       <div className="flex flex-col xl:flex-row gap-20 xl:gap-28">
@@ -73,9 +74,7 @@ const Cart = () => {
 
           {/* Lặp qua các sản phẩm ở mảng cartData trong giỏ hàng và hiển thị từng sản phẩm */}
           {cartData.map((item, i) => {
-            const product = products.find( // product.find tìm sản phẩm tương ứng trong mảng products
-              (product) => product._id === item._id
-            );
+            const product = cartProducts[item._id]; // tìm sản phẩm tương ứng trong cartProducts theo id
             const quantity = cartItems[item._id][item.size]; // cartItem lấy số lượng sản phẩm theo id và size
 
             // Chi tiết từng sản phẩm trong giỏ hàng
@@ -172,7 +171,7 @@ const Cart = () => {
       </div>
     </div>
   ) : null;
-  // Phần này liên quan đến câu lệnh kiểm tra điều kiện ở đầu (return products.length > 0 && cartItems ? (...) : null;).
+  // Phần này liên quan đến câu lệnh kiểm tra điều kiện ở đầu (return Object.keys(cartProducts).length > 0 && cartItems ? (...) : null;).
   /* Nếu điều kiện ở đầu không được thỏa mãn (ví dụ: dữ liệu sản phẩm chưa tải hoặc giỏ hàng trống), 
   component Cart sẽ trả về null và không hiển thị gì cả, tránh lỗi và giao diện trống. */
 };
@@ -0,0 +1,118 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.ProductDetails;
+import com.shopprr.clothing_backend.model.Review;
+
+// Deterministic, fixture-shaped objects for the benchmarks
+final class BenchmarkData {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] SIZES = {"S", "M", "L", "XL", "XXL"};
+    private static final String[] CATEGORIES = {"Shirts & Polos", "Bottoms", "Outerwear", "Innerwear & Underwear", "Shoes", "Accessories"};
+
+    private BenchmarkData() {
+    }
+
+    static String productId(int index) {
+        return String.format("673b1234567890ab%08x", index);
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    static Product product(int index) {
+        Product product = new Product();
+        product.setId(productId(index));
+        product.setName("Washable Milano Ribbed Knitted T-Shirt #" + index);
+        product.setDescription("Men's t-shirt made from 100% premium Supima cotton, excellent stretch and moisture absorption. "
+                + "Regular fit for comfort, suitable for all body types. Minimalist Japanese-style design.");
+        product.setImage(List.of(
+                "https://image.uniqlo.com/UQ/ST3/AsianCommon/imagesgoods/481004/sub/goods_481004_sub14_3x4.jpg?width=600",
+                "https://image.uniqlo.com/UQ/ST3/vn/imagesgoods/481004/feature/vngoods_481004_feature2.jpg?width=600",
+                "https://image.uniqlo.com/UQ/ST3/vn/imagesgoods/481004/feature/vngoods_481004_feature1.jpg?width=600"));
+        product.setPrice(299000.0);
+        product.setOfferPrice(249000.0);
+        product.setCategory(CATEGORIES[index % CATEGORIES.length]);
+        product.setSizes(List.of(SIZES));
+        product.setColors(List.of("Black", "White"));
+
+        ProductDetails details = new ProductDetails();
+        details.setMaterial("100% Supima Cotton");
+        details.setFit("Regular Fit");
+        details.setCare("Machine wash cold, tumble dry low");
+        details.setFeatures(List.of("Breathable fabric", "Moisture-wicking", "Soft and comfortable", "Durable stitching"));
+        details.setWeight("180g");
+        details.setOrigin("Made in Vietnam");
+        product.setDetails(details);
+
+        product.setPopular(index % 10 == 0);
+        product.setCreatedAt(BASE.minusDays(index % 365));
+        product.setUpdatedAt(BASE);
+        return product;
+    }
+
+    static Order order(int items, int catalogSize, SplittableRandom random) {
+        List<Order.OrderItem> orderItems = new ArrayList<>(items);
+        double total = 0.0;
+        for (int i = 0; i < items; i++) {
+            Order.OrderItem item = new Order.OrderItem();
+            item.setProduct(productId(random.nextInt(catalogSize)));
+            item.setQuantity(1 + random.nextInt(3));
+            item.setSize(SIZES[random.nextInt(SIZES.length)]);
+            item.setPrice(249000.0);
+            total += item.getPrice() * item.getQuantity();
+            orderItems.add(item);
+        }
+
+        Order.Address address = new Order.Address();
+        address.setFirstName("John");
+        address.setLastName("Anderson");
+        address.setEmail("john.anderson@example.com");
+        address.setStreet("123 Main Street");
+        address.setCity("Ho Chi Minh City");
+        address.setState("District 1");
+        address.setZipcode("700000");
+        address.setCountry("Vietnam");
+        address.setPhone("+84901234567");
+
+        Order order = new Order();
+        order.setId(productId(random.nextInt()));
+        order.setItems(orderItems);
+        order.setAddress(address);
+        order.setPaymentMethod("COD");
+        order.setTotalAmount(total);
+        order.setStatus("pending");
+        order.setCreatedAt(BASE);
+        order.setUpdatedAt(BASE);
+        return order;
+    }
+
+    static List<Review> reviews(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Review review = new Review();
+            review.setId(productId(i));
+            review.setProductId(productId(0));
+            review.setUserId(productId(i % 97));
+            review.setRating(1 + random.nextInt(5));
+            review.setTitle("Perfect fit and great quality!");
+            review.setComment("The fabric is soft, breathable, and holds up well after multiple washes.");
+            review.setUserName("John Anderson");
+            review.setCreatedAt(BASE.minusHours(i));
+            reviews.add(review);
+        }
+        return reviews;
+    }
+}
@@ -0,0 +1,81 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shopprr.clothing_backend.service.UserService;
+
+// The in-memory part of UserService.updateCartData (add, change and remove a cart line)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartUpdateBenchmark {
+    @Param({"1", "20"})
+    private int cartLines;
+
+    // Enough carts that consecutive invocations don't keep hitting one cache-hot map
+    private static final int POOL_SIZE = 1024;
+
+    private List<Map<String, Map<String, Integer>>> carts;
+    private int next;
+    private String existingItem;
+    private String newItem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        carts = new ArrayList<>(POOL_SIZE);
+        for (int c = 0; c < POOL_SIZE; c++) {
+            Map<String, Map<String, Integer>> cart = new HashMap<>();
+            for (int i = 0; i < cartLines; i++) {
+                Map<String, Integer> sizes = new HashMap<>();
+                sizes.put("M", 1);
+                cart.put(BenchmarkData.productId(i), sizes);
+            }
+            carts.add(cart);
+        }
+        existingItem = BenchmarkData.productId(0);
+        newItem = BenchmarkData.productId(cartLines + 1);
+    }
+
+    private Map<String, Map<String, Integer>> nextCart() {
+        Map<String, Map<String, Integer>> cart = carts.get(next);
+        next = (next + 1) % POOL_SIZE;
+        return cart;
+    }
+
+    // add and remove put the cart back into its starting shape afterwards (one extra map op),
+    // so every pass over the pool measures the same path
+    @Benchmark
+    public Map<String, Map<String, Integer>> addLine() {
+        Map<String, Map<String, Integer>> cart = UserService.applyCartChange(nextCart(), newItem, "L", 1);
+        cart.remove(newItem);
+        return cart;
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Integer>> changeQuantity() {
+        return UserService.applyCartChange(nextCart(), existingItem, "M", 3);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Integer>> removeLine() {
+        Map<String, Map<String, Integer>> cart = UserService.applyCartChange(nextCart(), existingItem, "M", 0);
+        Map<String, Integer> sizes = new HashMap<>();
+        sizes.put("M", 1);
+        cart.put(existingItem, sizes);
+        return cart;
+    }
+}
@@ -0,0 +1,37 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shopprr.clothing_backend.service.ProductService;
+
+// Base64 data-URL encoding done by /api/product/add for every uploaded image
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImageEncodingBenchmark {
+    @Param({"51200", "524288", "2097152"})
+    private int imageBytes;
+
+    private byte[] image;
+
+    @Setup
+    public void setUp() {
+        image = new byte[imageBytes];
+        new SplittableRandom(1).nextBytes(image);
+    }
+
+    @Benchmark
+    public String toDataUrl() {
+        return ProductService.toDataUrl(image, "image/jpeg");
+    }
+}
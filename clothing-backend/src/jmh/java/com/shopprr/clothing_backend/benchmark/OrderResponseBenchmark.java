@@ -0,0 +1,44 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shopprr.clothing_backend.dto.OrderResponse;
+import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.Product;
+
+// OrderResponse.fromOrder is called once per order with the products of the whole result set
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderResponseBenchmark {
+    @Param({"1", "4"})
+    private int itemsPerOrder;
+
+    @Param({"50", "1000"})
+    private int productsInResultSet;
+
+    private Order order;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(productsInResultSet);
+        order = BenchmarkData.order(itemsPerOrder, productsInResultSet, new SplittableRandom(7));
+    }
+
+    @Benchmark
+    public OrderResponse fromOrder() {
+        return OrderResponse.fromOrder(order, products);
+    }
+}
@@ -0,0 +1,54 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shopprr.clothing_backend.dto.ProductListResponse;
+import com.shopprr.clothing_backend.model.Product;
+
+// Jackson cost of the catalog responses, using the same builder Spring MVC configures
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSerializationBenchmark {
+    @Param({"35", "1000", "10000"})
+    private int catalogSize;
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private ProductListResponse listResponse;
+
+    @Setup
+    public void setUp() {
+        // Spring Boot additionally writes dates as ISO strings
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Product> products = BenchmarkData.products(catalogSize);
+        product = products.get(0);
+        listResponse = new ProductListResponse(true, "Products fetched successfully", products);
+    }
+
+    @Benchmark
+    public byte[] product() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] productList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listResponse);
+    }
+}
@@ -0,0 +1,97 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.service.ProductService;
+
+/**
+ * Bytes sent for a price edit: the whole product as {@code save} writes it versus the
+ * {@code $set}/{@code $inc} document of a partial update. Each benchmark returns the encoded size
+ * in bytes; the scores are the client-side cost of mapping and encoding each. {@code uploadedImages} > 0
+ * stores images inline as data URLs, as /api/product/add does for uploads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductWriteBenchmark {
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    @Param({"0", "3"})
+    private int uploadedImages;
+
+    private MappingMongoConverter converter;
+    private UpdateMapper updateMapper;
+    private MongoPersistentEntity<?> entity;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        updateMapper = new UpdateMapper(converter);
+        entity = context.getRequiredPersistentEntity(Product.class);
+
+        product = BenchmarkData.product(0);
+        product.setVersion(3L);
+        if (uploadedImages > 0) {
+            SplittableRandom random = new SplittableRandom(1);
+            List<String> images = new ArrayList<>();
+            for (int i = 0; i < uploadedImages; i++) {
+                byte[] image = new byte[150 * 1024];
+                random.nextBytes(image);
+                images.add(ProductService.toDataUrl(image, "image/jpeg"));
+            }
+            product.setImage(images);
+        }
+    }
+
+    @Benchmark
+    public int fullDocument() {
+        Document document = new Document();
+        converter.write(product, document);
+        return encodedSize(document);
+    }
+
+    @Benchmark
+    public int partialUpdate() {
+        Update update = new Update()
+                .set("price", 279000.0)
+                .set("offerPrice", 229000.0)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+        return encodedSize(updateMapper.getMappedObject(update.getUpdateObject(), entity));
+    }
+
+    private static int encodedSize(Document document) {
+        return new RawBsonDocument(document, CODEC).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopprr.clothing_backend.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.service.ReviewService;
+
+// Rating stats served by /api/review/product/{id}/stats
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReviewStatsBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int reviewCount;
+
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        reviews = BenchmarkData.reviews(reviewCount);
+    }
+
+    @Benchmark
+    public Map<String, Object> computeStats() {
+        return ReviewService.computeStats(reviews);
+    }
+}
@@ -0,0 +1,46 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+// Latency histogram (microseconds) and error count for one endpoint of the traffic mix
+final class EndpointStats {
+    private final String name;
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long micros, long expectedIntervalMicros, boolean ok) {
+        if (expectedIntervalMicros > 0) {
+            // Back-fills samples the closed loop could not send while a slow request was in flight
+            histogram.recordValueWithExpectedInterval(micros, expectedIntervalMicros);
+        } else {
+            histogram.recordValue(micros);
+        }
+        requests.increment();
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    ConcurrentHistogram histogram() {
+        return histogram;
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
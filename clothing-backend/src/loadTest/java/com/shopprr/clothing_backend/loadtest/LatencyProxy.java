@@ -0,0 +1,91 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TCP proxy in front of mongod that holds every server reply for a configurable delay, to stand
+ * in for a slow or distant database. Each direction of each connection is pumped by a virtual thread.
+ */
+final class LatencyProxy implements AutoCloseable {
+    private final ServerSocket server;
+    private final String targetHost;
+    private final int targetPort;
+    private final ExecutorService pumps = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long delayMillis;
+
+    LatencyProxy(String targetHost, int targetPort) throws IOException {
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress("127.0.0.1", 0));
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        pumps.submit(this::acceptLoop);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                Socket upstream = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                upstream.setTcpNoDelay(true);
+                pumps.submit(() -> pump(client, upstream, false));
+                pumps.submit(() -> pump(upstream, client, true));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Latency proxy accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void pump(Socket from, Socket to, boolean delayed) {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                long delay = delayMillis;
+                if (delayed && delay > 0) {
+                    Thread.sleep(delay);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // connection closed by either side
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        pumps.shutdownNow();
+    }
+}
@@ -0,0 +1,101 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+
+import com.shopprr.clothing_backend.ClothingBackendApplication;
+import com.shopprr.clothing_backend.tools.datagen.DataGenProperties;
+import com.shopprr.clothing_backend.tools.datagen.FixtureTemplates;
+import com.shopprr.clothing_backend.tools.datagen.MongoBulkSink;
+import com.shopprr.clothing_backend.tools.datagen.SyntheticDataGenerator;
+
+/**
+ * End-to-end storefront load test: boots the application on a random port, seeds a dedicated
+ * database with the synthetic data generator, drives a weighted mix of browse/cart/checkout/admin
+ * traffic and reports per-endpoint throughput and latency percentiles.
+ *
+ * <pre>
+ * ./gradlew loadTest                                            # Testcontainers mongo:7.0
+ * ./gradlew loadTest -Dloadtest.mongo-uri=mongodb://localhost:27017 -Dloadtest.concurrency=128
+ * ./gradlew loadTest -Dloadtest.target-rps=2000                 # paced, coordinated-omission corrected
+ * </pre>
+ */
+public class LoadTest {
+    private static final List<String> COLLECTIONS = List.of("categories", "products", "users", "orders", "reviews", "review_votes");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        MongoDBContainer container = null;
+        String mongoUri = config.mongoUri();
+        if (mongoUri == null || mongoUri.isBlank()) {
+            container = new MongoDBContainer("mongo:7.0");
+            container.start();
+            mongoUri = container.getConnectionString();
+        }
+
+        ConfigurableApplicationContext context = null;
+        try {
+            context = startApplication(mongoUri, config.database());
+            seed(context.getBean(MongoTemplate.class), config);
+
+            int port = port(context);
+            System.out.printf("Running %d workers for %ds (+%ds warm-up)%s against port %d%n",
+                    config.concurrency(), config.durationSeconds(), config.warmupSeconds(),
+                    config.targetRps() > 0 ? " at " + config.targetRps() + " req/s" : "", port);
+
+            Map<String, EndpointStats> stats = new StorefrontTraffic("http://localhost:" + port, config).run();
+            LoadTestReport report = new LoadTestReport(config, stats);
+            report.print(System.out);
+            report.write(Path.of(config.reportDir()));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication(String mongoUri, String database) {
+        return SpringApplication.run(ClothingBackendApplication.class,
+                "--server.port=0",
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.data.mongodb.database=" + database,
+                "--logging.level.com.shopprr.clothing_backend=INFO",
+                "--logging.level.org.springframework.security=INFO");
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static void seed(MongoTemplate mongoTemplate, LoadTestConfig config) throws Exception {
+        DataGenProperties properties = new DataGenProperties();
+        properties.setSeed(config.seed());
+        properties.setUsers(config.users());
+        properties.setProducts(config.products());
+        properties.setOrders(config.orders());
+        properties.setReviews(config.reviews());
+
+        // The generator assigns deterministic ids, so the database must start empty. Remove documents
+        // rather than dropping the collections: the app has already created its indexes by now
+        COLLECTIONS.forEach(collection -> mongoTemplate.remove(new Query(), collection));
+        long start = System.currentTimeMillis();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                FixtureTemplates.load(Path.of(properties.getFixturesDir())), properties);
+        try (MongoBulkSink sink = new MongoBulkSink(mongoTemplate, properties.getBatchSize())) {
+            Map<String, Long> counts = generator.generate(sink);
+            System.out.printf("Seeded %s into %s in %d ms%n", counts, config.database(), System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.shopprr.clothing_backend.loadtest;
+
+// Load test settings, read from -Dloadtest.* system properties
+record LoadTestConfig(
+        String mongoUri,
+        String database,
+        int warmupSeconds,
+        int durationSeconds,
+        int concurrency,
+        int targetRps,
+        long seed,
+        long users,
+        long products,
+        long orders,
+        long reviews,
+        String reportDir) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.mongo-uri"),
+                System.getProperty("loadtest.database", "shopprr_loadtest"),
+                Integer.getInteger("loadtest.warmup-seconds", 15),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Integer.getInteger("loadtest.target-rps", 0),
+                Long.getLong("loadtest.seed", 42L),
+                Long.getLong("loadtest.users", 5_000L),
+                Long.getLong("loadtest.products", 2_000L),
+                Long.getLong("loadtest.orders", 20_000L),
+                Long.getLong("loadtest.reviews", 50_000L),
+                System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Console table plus report.json and one .hgrm percentile distribution per endpoint
+final class LoadTestReport {
+    private final LoadTestConfig config;
+    private final Map<String, EndpointStats> stats;
+
+    LoadTestReport(LoadTestConfig config, Map<String, EndpointStats> stats) {
+        this.config = config;
+        this.stats = stats;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-36s %10s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        Histogram total = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            total.add(histogram);
+            requests += endpoint.requests();
+            errors += endpoint.errors();
+            printRow(out, endpoint.name(), histogram, endpoint.requests(), endpoint.errors());
+        }
+        printRow(out, "all", total, requests, errors);
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.name());
+            row.put("requests", endpoint.requests());
+            row.put("errors", endpoint.errors());
+            row.put("throughput", throughput(endpoint.requests()));
+            row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            row.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            row.put("maxMs", millis(histogram.getMaxValue()));
+            endpoints.add(row);
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(fileName(endpoint.name()) + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("endpoints", endpoints);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("report.json").toFile(), report);
+        System.out.println("Report written to " + directory.resolve("report.json").toAbsolutePath());
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, long requests, long errors) {
+        out.printf("%-36s %10d %9.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                name, requests, throughput(requests),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()), errors);
+    }
+
+    private double throughput(long requests) {
+        // Count requests actually sent: corrected histograms also hold back-filled samples
+        return requests / (double) config.durationSeconds();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+}
@@ -0,0 +1,181 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.ConnectionString;
+import com.shopprr.clothing_backend.tools.datagen.SyntheticDataGenerator;
+
+/**
+ * Compares the blocking MVC catalog reads with their {@code /api/reactive} twins while every Mongo
+ * reply is held back by {@link LatencyProxy}. For each connection count it reports throughput,
+ * latency, the peak number of platform threads and the heap retained per open connection.
+ * The client runs in the same JVM, so thread and heap figures are relative rather than absolute:
+ * both variants carry the same client overhead.
+ *
+ * <pre>
+ * ./gradlew reactiveComparison -Dloadtest.db-latency-ms=50 -Dloadtest.connections=50,200,800
+ * </pre>
+ */
+public class ReactiveComparison {
+    private record Variant(String name, String productPath, String reviewsPath) {
+    }
+
+    private static final List<Variant> VARIANTS = List.of(
+            new Variant("mvc", "/api/product/", "/api/review/product/"),
+            new Variant("reactive", "/api/reactive/product/", "/api/reactive/review/product/"));
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        long dbLatencyMs = Long.getLong("loadtest.db-latency-ms", 20L);
+        List<Integer> connectionCounts = new ArrayList<>();
+        for (String count : System.getProperty("loadtest.connections", "50,200,800").split(",")) {
+            connectionCounts.add(Integer.parseInt(count.trim()));
+        }
+
+        MongoDBContainer container = null;
+        String mongoUri = config.mongoUri();
+        if (mongoUri == null || mongoUri.isBlank()) {
+            container = new MongoDBContainer("mongo:7.0");
+            container.start();
+            mongoUri = container.getConnectionString();
+        }
+        String[] target = new ConnectionString(mongoUri).getHosts().get(0).split(":");
+
+        ConfigurableApplicationContext context = null;
+        try (LatencyProxy proxy = new LatencyProxy(target[0], target.length > 1 ? Integer.parseInt(target[1]) : 27017)) {
+            context = LoadTest.startApplication("mongodb://127.0.0.1:" + proxy.port() + "/?directConnection=true",
+                    config.database());
+            LoadTest.seed(context.getBean(MongoTemplate.class), config);
+            String baseUrl = "http://localhost:" + LoadTest.port(context);
+
+            proxy.setDelayMillis(dbLatencyMs);
+            System.out.printf("%nMongo replies delayed by %d ms%n", dbLatencyMs);
+            System.out.printf("%-9s %11s %10s %9s %9s %12s %14s %8s%n",
+                    "variant", "connections", "req/s", "p50 ms", "p99 ms", "peak threads", "heap KB/conn", "errors");
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int connections : connectionCounts) {
+                for (Variant variant : VARIANTS) {
+                    Map<String, Object> row = run(baseUrl, variant, connections, config);
+                    row.put("dbLatencyMs", dbLatencyMs);
+                    rows.add(row);
+                    System.out.printf("%-9s %11d %10.1f %9.2f %9.2f %12d %14.1f %8d%n",
+                            variant.name(), connections, row.get("throughput"), row.get("p50Ms"), row.get("p99Ms"),
+                            row.get("peakPlatformThreads"), row.get("heapKbPerConnection"), row.get("errors"));
+                }
+            }
+
+            Path directory = Path.of(config.reportDir());
+            Files.createDirectories(directory);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(directory.resolve("reactive-comparison.json").toFile(), rows);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    private static Map<String, Object> run(String baseUrl, Variant variant, int connections, LoadTestConfig config)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long heapDuring;
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < connections; worker++) {
+                SplittableRandom random = new SplittableRandom(config.seed() * 31 + worker);
+                workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long index = random.nextLong(config.products());
+                        String id = SyntheticDataGenerator.productId(index).toHexString();
+                        String path = random.nextBoolean() ? variant.productPath() + id : variant.reviewsPath() + id;
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                    .header("Accept", "application/json")
+                                    .GET()
+                                    .build();
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (IOException e) {
+                            ok = false;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        if (start >= measureFrom) {
+                            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                            requests.increment();
+                            if (!ok) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                });
+            }
+
+            // Sample retained heap mid-run, with every connection busy
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(measureFrom - System.nanoTime()))
+                    + TimeUnit.SECONDS.toMillis(config.durationSeconds()) / 2);
+            System.gc();
+            heapDuring = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("variant", variant.name());
+        row.put("connections", connections);
+        row.put("requests", requests.sum());
+        row.put("errors", errors.sum());
+        row.put("throughput", requests.sum() / (double) config.durationSeconds());
+        row.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        row.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        row.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        row.put("peakPlatformThreads", threads.getPeakThreadCount());
+        row.put("heapKbPerConnection", Math.max(0, heapDuring - heapBefore) / 1024.0 / connections);
+        return row;
+    }
+}
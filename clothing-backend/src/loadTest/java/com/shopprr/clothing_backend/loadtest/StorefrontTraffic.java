@@ -0,0 +1,167 @@
+package com.shopprr.clothing_backend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import com.shopprr.clothing_backend.tools.datagen.SyntheticDataGenerator;
+
+/**
+ * Closed-loop storefront traffic: each virtual-thread worker picks an operation by weight, sends it
+ * and waits for the full response before the next one. With a target rate the workers pace
+ * themselves and latencies are corrected for coordinated omission.
+ */
+final class StorefrontTraffic {
+    private static final String[] SIZES = {"S", "M", "L", "XL"};
+
+    private record Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    StorefrontTraffic(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.operations = List.of(
+                new Operation("GET /api/product/list", 20, random -> get("/api/product/list", null)),
+                new Operation("GET /api/product/{id}", 30, random -> get("/api/product/" + product(random), null)),
+                new Operation("GET /api/category/list", 10, random -> get("/api/category/list", null)),
+                new Operation("GET /api/review/product/{id}/stats", 20, random -> get("/api/review/product/" + product(random) + "/stats", null)),
+                new Operation("POST /api/cart/add", 12, random -> post("/api/cart/add", customer(random),
+                        "{\"itemId\":\"" + product(random) + "\",\"size\":\"" + size(random) + "\"}")),
+                new Operation("POST /api/order/cod", 6, random -> post("/api/order/cod", customer(random), orderJson(random))),
+                new Operation("POST /api/order/list (admin)", 2, random -> post("/api/order/list", admin(), "{}")));
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    Map<String, EndpointStats> run() throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        operations.forEach(operation -> stats.put(operation.name(), new EndpointStats(operation.name())));
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        long intervalNanos = config.targetRps() > 0 ? TimeUnit.SECONDS.toNanos(config.concurrency()) / config.targetRps() : 0;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < config.concurrency(); worker++) {
+                SplittableRandom random = new SplittableRandom(config.seed() * 31 + worker);
+                workers.submit(() -> work(random, stats, measureFrom, end, intervalNanos));
+            }
+        }
+        return stats;
+    }
+
+    private void work(SplittableRandom random, Map<String, EndpointStats> stats, long measureFrom, long end, long intervalNanos) {
+        long next = System.nanoTime();
+        while (true) {
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                next += intervalNanos;
+            }
+            long start = System.nanoTime();
+            if (start >= end) {
+                return;
+            }
+
+            Operation operation = pick(random);
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(operation.request().apply(random), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (start >= measureFrom) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                stats.get(operation.name()).record(micros, TimeUnit.NANOSECONDS.toMicros(intervalNanos), ok);
+            }
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations.get(0);
+    }
+
+    private HttpRequest get(String path, String userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (userId != null) {
+            builder.header("Cookie", "user_session=" + userId);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String userId, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Cookie", "user_session=" + userId)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String orderJson(SplittableRandom random) {
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"product\":\"").append(product(random))
+                    .append("\",\"quantity\":").append(1 + random.nextInt(2))
+                    .append(",\"size\":\"").append(size(random)).append("\"}");
+        }
+        return "{\"items\":[" + items + "],\"address\":{\"firstName\":\"Load\",\"lastName\":\"Test\","
+                + "\"email\":\"load.test@example.com\",\"street\":\"123 Main Street\",\"city\":\"Ho Chi Minh City\","
+                + "\"state\":\"District 1\",\"zipcode\":\"700000\",\"country\":\"Vietnam\",\"phone\":\"+84901234567\"}}";
+    }
+
+    // Same skew as the generator: a few hot products and a long tail
+    private String product(SplittableRandom random) {
+        double u = random.nextDouble();
+        long index = Math.min(config.products() - 1, (long) (config.products() * u * u));
+        return SyntheticDataGenerator.productId(index).toHexString();
+    }
+
+    // User 0 is the generated admin; customers are the rest
+    private String customer(SplittableRandom random) {
+        long index = config.users() > 1 ? 1 + random.nextLong(config.users() - 1) : 0;
+        return SyntheticDataGenerator.userId(index).toHexString();
+    }
+
+    private String admin() {
+        return SyntheticDataGenerator.userId(0).toHexString();
+    }
+
+    private String size(SplittableRandom random) {
+        return SIZES[random.nextInt(SIZES.length)];
+    }
+}
@@ -0,0 +1,58 @@
+package com.shopprr.clothing_backend.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared with {@code @Indexed} / {@code @CompoundIndex} on the model classes
+ * once the app is up. Runs on its own thread instead of during context startup, so the app still
+ * starts while Mongo is unreachable; a failure is logged and the indexes are created on the next
+ * start. Creating an index that already exists is a no-op.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::createIndexes, "mongo-indexes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void createIndexes() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            try {
+                for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                    indexOps.createIndex(index);
+                }
+            } catch (RuntimeException e) {
+                // Mongo down or shutting down; every other collection would fail the same way
+                log.warn("Could not create indexes on {}: {}", entity.getCollection(), e.getMessage());
+                return;
+            }
+        }
+        log.debug("Mongo indexes are in place");
+    }
+}
@@ -0,0 +1,22 @@
+package com.shopprr.clothing_backend.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.shopprr.clothing_backend.monitoring.RequestDbStatsListener;
+import com.shopprr.clothing_backend.monitoring.SlowOperationRecorder;
+
+@Configuration
+public class MongoMonitoringConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowOperationListener(SlowOperationRecorder recorder) {
+        return builder -> builder.addCommandListener(recorder);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestDbStatsCustomizer(RequestDbStatsListener listener) {
+        return builder -> builder.addCommandListener(listener);
+    }
+}
@@ -0,0 +1,55 @@
+package com.shopprr.clothing_backend.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records BCrypt cost as {@code auth.password.encode} and {@code auth.password.verify}
+ * (tagged {@code outcome=match|mismatch}); at strength 10 a verify is tens of milliseconds of CPU
+ * per login, which is easy to miss in the request timers alone.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer("auth.password.encode", "Time spent hashing passwords", null, registry);
+        this.matchTimer = timer("auth.password.verify", "Time spent verifying passwords", "match", registry);
+        this.mismatchTimer = timer("auth.password.verify", "Time spent verifying passwords", "mismatch", registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(String name, String description, String outcome, MeterRegistry registry) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram();
+        if (outcome != null) {
+            builder.tag("outcome", outcome);
+        }
+        return builder.register(registry);
+    }
+}
@@ -5,7 +5,6 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.dto.LoginRequest;
 import com.shopprr.clothing_backend.model.User;
+import com.shopprr.clothing_backend.monitoring.SlowOperationRecorder;
+import com.shopprr.clothing_backend.service.CustomerOrderStatsService;
 import com.shopprr.clothing_backend.service.UserService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,7 +27,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AdminController {
     private final UserService userService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final SlowOperationRecorder slowOperationRecorder;
+    private final CustomerOrderStatsService customerOrderStatsService;
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse> login(@RequestBody LoginRequest loginRequest, HttpServletResponse response) {
@@ -46,7 +48,7 @@ public class AdminController {
             }
 
             // Verify password
-            boolean passwordMatches = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
+            boolean passwordMatches = userService.verifyPassword(loginRequest.getPassword(), user.getPassword());
             
             if (!passwordMatches) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -148,4 +150,50 @@ public class AdminController {
                     .body(new ApiResponse(false, "Error retrieving orders: " + e.getMessage()));
         }
     }
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<ApiResponse> getSlowQueries(@CookieValue(value = "user_session", required = false) String userId) {
+        try {
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Not authenticated"));
+            }
+
+            User user = userService.findById(userId).orElse(null);
+            if (user == null || !user.getRole().equals("admin")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Access denied"));
+            }
+
+            return ResponseEntity.ok(new ApiResponse(true, "Slow queries retrieved successfully",
+                    slowOperationRecorder.getRecent()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving slow queries: " + e.getMessage()));
+        }
+    }
+
+    // Recomputes every customer's order count, spend and last order date from the orders collection
+    @PostMapping("/order-stats/rebuild")
+    public ResponseEntity<ApiResponse> rebuildOrderStats(@CookieValue(value = "user_session", required = false) String userId) {
+        try {
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Not authenticated"));
+            }
+
+            User user = userService.findById(userId).orElse(null);
+            if (user == null || !user.getRole().equals("admin")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Access denied"));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("customers", customerOrderStatsService.rebuild());
+            return ResponseEntity.ok(new ApiResponse(true, "Order stats rebuilt successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error rebuilding order stats: " + e.getMessage()));
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.shopprr.clothing_backend.controller;
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.dto.CartRequest;
 import com.shopprr.clothing_backend.model.User;
+import com.shopprr.clothing_backend.service.CartQuoteService;
 import com.shopprr.clothing_backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class CartController {
     private final UserService userService;
+    private final CartQuoteService cartQuoteService;
 
     @PostMapping("/add")
     public ResponseEntity<ApiResponse> addToCart(
@@ -72,4 +74,20 @@ public class CartController {
                     .body(new ApiResponse(false, "Error fetching cart: " + e.getMessage()));
         }
     }
+
+    // Server-side prices for the caller's cart; checkout reuses the quote while the cart and its products are unchanged
+    @GetMapping("/quote")
+    public ResponseEntity<ApiResponse> getQuote(@CookieValue(value = "user_session", required = false) String userId) {
+        try {
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login to view cart"));
+            }
+
+            return ResponseEntity.ok(new ApiResponse(true, "Cart quote fetched successfully", cartQuoteService.getQuote(userId)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error pricing cart: " + e.getMessage()));
+        }
+    }
 }
@@ -1,7 +1,5 @@
 package com.shopprr.clothing_backend.controller;
 
-import java.util.List;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,10 +10,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.dto.CategoryListResponse;
 import com.shopprr.clothing_backend.model.Category;
+import com.shopprr.clothing_backend.service.CatalogResponseCache;
+import com.shopprr.clothing_backend.service.CatalogVersions;
 import com.shopprr.clothing_backend.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -25,12 +26,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogResponseCache catalogResponseCache;
 
     @GetMapping("/list")
-    public ResponseEntity<CategoryListResponse> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(WebRequest request) {
         try {
-            List<Category> categories = categoryService.getActiveCategories();
-            return ResponseEntity.ok(new CategoryListResponse(true, "Categories fetched successfully", categories));
+            long version = catalogVersions.categoryVersion();
+            if (request.checkNotModified(catalogVersions.eTag("categories", version))) {
+                return null;
+            }
+            return catalogResponseCache.get("categories", version, request, () ->
+                    new CategoryListResponse(true, "Categories fetched successfully", categoryService.getActiveCategories()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CategoryListResponse(false, "Error fetching categories: " + e.getMessage()));
@@ -1,21 +1,41 @@
 package com.shopprr.clothing_backend.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.dto.OrderResponse;
+import com.shopprr.clothing_backend.dto.OrderStatusBatchResult;
 import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.OrderTicket;
+import com.shopprr.clothing_backend.model.User;
 import com.shopprr.clothing_backend.repository.UserRepository;
+import com.shopprr.clothing_backend.service.OrderEventBroadcaster;
+import com.shopprr.clothing_backend.service.OrderExportService;
+import com.shopprr.clothing_backend.service.OrderPipelineService;
 import com.shopprr.clothing_backend.service.OrderService;
+import com.shopprr.clothing_backend.service.VersionConflictException;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +47,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderPipelineService orderPipelineService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
     private final UserRepository userRepository;
 
     @Data
@@ -66,6 +89,68 @@ public class OrderController {
         }
     }
 
+    // Accepts the order and returns a ticket right away; pricing and persistence happen in the order pipeline
+    @PostMapping("/cod/async")
+    public ResponseEntity<ApiResponse> placeOrderCODAsync(
+            @RequestBody OrderRequest orderRequest,
+            HttpServletRequest request) {
+        try {
+            String userId = getUserIdFromCookie(request);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login to place order"));
+            }
+
+            OrderTicket ticket = orderPipelineService.enqueue(
+                    userId,
+                    orderRequest.getItems(),
+                    orderRequest.getAddress(),
+                    "COD"
+            );
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("ticketId", ticket.getId());
+            response.put("status", ticket.getStatus());
+            response.put("statusUrl", "/api/order/ticket/" + ticket.getId());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse(true, "Order accepted", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error placing order: " + e.getMessage()));
+        }
+    }
+
+    // Ticket status; with waitMs > 0 the request is held (up to 30s) until the ticket is completed, rejected or failed
+    @GetMapping("/ticket/{ticketId}")
+    public CompletableFuture<ResponseEntity<ApiResponse>> getOrderTicket(
+            @PathVariable String ticketId,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs,
+            HttpServletRequest request) {
+        try {
+            String userId = getUserIdFromCookie(request);
+            if (userId == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login")));
+            }
+
+            OrderTicket ticket = orderPipelineService.getTicket(ticketId);
+            if (ticket == null || !userId.equals(ticket.getUserId())) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse(false, "Order ticket not found")));
+            }
+
+            return orderPipelineService.awaitDone(ticket, waitMs)
+                    .thenApply(current -> ResponseEntity.ok(new ApiResponse(true, "Order ticket " + current.getStatus(), current)));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving order ticket: " + e.getMessage())));
+        }
+    }
+
     @PostMapping("/stripe")
     public ResponseEntity<ApiResponse> placeOrderStripe(
             @RequestBody Map<String, Object> payload,
@@ -127,9 +212,10 @@ public class OrderController {
         return null;
     }
 
+    // Sending the order's "version" makes the change fail with 409 if the order was modified since it was read
     @PostMapping("/status")
     public ResponseEntity<ApiResponse> updateOrderStatus(
-            @RequestBody Map<String, String> payload,
+            @RequestBody Map<String, Object> payload,
             HttpServletRequest request) {
         try {
             String userId = getUserIdFromCookie(request);
@@ -138,22 +224,71 @@ public class OrderController {
                         .body(new ApiResponse(false, "Please login"));
             }
 
-            String orderId = payload.get("orderId");
-            String status = payload.get("status");
+            String orderId = (String) payload.get("orderId");
+            String status = (String) payload.get("status");
 
-            Order order = orderService.getOrderById(orderId);
-            order.setStatus(status);
-            order.setUpdatedAt(java.time.LocalDateTime.now());
-            
-            orderService.updateOrder(order);
+            orderService.patchOrder(orderId, versionOf(payload), null, status);
 
             return ResponseEntity.ok(new ApiResponse(true, "Order status updated"));
+        } catch (VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating order: " + e.getMessage()));
         }
     }
 
+    // Fulfilment: moves many orders to one status; per-order outcomes are in data.results
+    @PostMapping("/status/batch")
+    public ResponseEntity<ApiResponse> updateOrderStatuses(
+            @RequestBody Map<String, Object> payload,
+            HttpServletRequest request) {
+        try {
+            String userId = getUserIdFromCookie(request);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login"));
+            }
+
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null || (!"admin".equals(user.getRole()) && !"staff".equals(user.getRole()))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Access denied"));
+            }
+
+            // Bodies are untyped JSON, so check shapes here rather than let a bad cast become a 500
+            Object statusValue = payload.get("status");
+            if (!(statusValue instanceof String status) || !OrderService.isKnownStatus(status)) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Unknown status: " + statusValue));
+            }
+
+            if (!(payload.get("orderIds") instanceof List<?> ids) || ids.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Order IDs are required"));
+            }
+            List<String> orderIds = new ArrayList<>(ids.size());
+            for (Object id : ids) {
+                if (!(id instanceof String orderId)) {
+                    return ResponseEntity.badRequest()
+                            .body(new ApiResponse(false, "Order IDs must be strings"));
+                }
+                orderIds.add(orderId);
+            }
+            if (orderIds.size() > OrderService.MAX_STATUS_BATCH) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "At most " + OrderService.MAX_STATUS_BATCH + " orders per request"));
+            }
+
+            OrderStatusBatchResult result = orderService.updateStatuses(orderIds, status);
+            return ResponseEntity.ok(new ApiResponse(true,
+                    result.getUpdated() + " of " + result.getResults().size() + " orders updated", result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error updating orders: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/list")
     public ResponseEntity<ApiResponse> getAllOrders(HttpServletRequest request) {
         try {
@@ -175,6 +310,84 @@ public class OrderController {
         }
     }
 
+    // Live order changes for the admin dashboard (text/event-stream); EventSource resumes via Last-Event-ID
+    @GetMapping("/events")
+    public ResponseEntity<SseEmitter> streamOrderEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        try {
+            String userId = getUserIdFromCookie(request);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null || (!"admin".equals(user.getRole()) && !"staff".equals(user.getRole()))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            return ResponseEntity.ok(orderEventBroadcaster.subscribe(lastEventId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Streams orders for accounting as NDJSON (default) or CSV; from/to are inclusive yyyy-MM-dd dates
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            HttpServletRequest request) {
+        try {
+            String userId = getUserIdFromCookie(request);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login"));
+            }
+
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null || (!"admin".equals(user.getRole()) && !"staff".equals(user.getRole()))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Access denied. Admin or staff role required."));
+            }
+
+            boolean csv = "csv".equalsIgnoreCase(format);
+            if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "format must be ndjson or csv"));
+            }
+
+            LocalDateTime fromDate;
+            LocalDateTime toDate;
+            try {
+                fromDate = from != null && !from.isEmpty() ? LocalDate.parse(from).atStartOfDay() : null;
+                // Exclusive bound at the start of the next day, so the whole of the last day is included
+                toDate = to != null && !to.isEmpty() ? LocalDate.parse(to).plusDays(1).atStartOfDay() : null;
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "from and to must be dates like 2024-01-31"));
+            }
+
+            StreamingResponseBody body = out -> {
+                if (csv) {
+                    orderExportService.writeCsv(fromDate, toDate, out);
+                } else {
+                    orderExportService.writeNdjson(fromDate, toDate, out);
+                }
+            };
+
+            String fileName = "orders-" + LocalDate.now() + (csv ? ".csv" : ".ndjson");
+            return ResponseEntity.ok()
+                    .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error exporting orders: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/delete")
     public ResponseEntity<ApiResponse> deleteOrder(
             @RequestBody Map<String, String> payload,
@@ -217,13 +430,12 @@ public class OrderController {
                         .body(new ApiResponse(false, "Order ID is required"));
             }
 
-            Order order = orderService.getOrderById(orderId);
-            
             // Update address if provided
+            Order.Address address = null;
             if (payload.containsKey("address")) {
                 @SuppressWarnings("unchecked")
                 Map<String, String> addressMap = (Map<String, String>) payload.get("address");
-                Order.Address address = new Order.Address();
+                address = new Order.Address();
                 address.setFirstName(addressMap.get("firstName"));
                 address.setLastName(addressMap.get("lastName"));
                 address.setEmail(addressMap.get("email"));
@@ -233,21 +445,28 @@ public class OrderController {
                 address.setZipcode(addressMap.get("zipcode"));
                 address.setCountry(addressMap.get("country"));
                 address.setPhone(addressMap.get("phone"));
-                order.setAddress(address);
             }
             
-            // Update status if provided
-            if (payload.containsKey("status")) {
-                order.setStatus((String) payload.get("status"));
-            }
-            
-            order.setUpdatedAt(java.time.LocalDateTime.now());
-            orderService.updateOrder(order);
+            // Only the provided fields are written
+            orderService.patchOrder(orderId, versionOf(payload), address, (String) payload.get("status"));
 
             return ResponseEntity.ok(new ApiResponse(true, "Order updated successfully"));
+        } catch (VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating order: " + e.getMessage()));
         }
     }
+
+    private Long versionOf(Map<String, Object> payload) {
+        return payload.get("version") instanceof Number version ? version.longValue() : null;
+    }
+
+    private ResponseEntity<ApiResponse> conflict(VersionConflictException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("currentVersion", e.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse(false, e.getMessage(), response));
+    }
 }
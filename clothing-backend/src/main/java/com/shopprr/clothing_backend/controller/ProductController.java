@@ -1,6 +1,7 @@
 package com.shopprr.clothing_backend.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,26 +16,47 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.shopprr.clothing_backend.dto.ApiResponse;
+import com.shopprr.clothing_backend.dto.ImportReport;
 import com.shopprr.clothing_backend.dto.ProductListResponse;
+import com.shopprr.clothing_backend.dto.ProductSummary;
 import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.service.CatalogImportService;
+import com.shopprr.clothing_backend.service.CatalogResponseCache;
+import com.shopprr.clothing_backend.service.CatalogVersions;
+import com.shopprr.clothing_backend.service.ProductPageService;
 import com.shopprr.clothing_backend.service.ProductService;
+import com.shopprr.clothing_backend.service.VersionConflictException;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/product")
 @RequiredArgsConstructor
 public class ProductController {
+    private static final int MAX_BATCH_IDS = 100;
+
     private final ProductService productService;
+    private final CatalogImportService catalogImportService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogResponseCache catalogResponseCache;
+    private final ProductPageService productPageService;
 
     @GetMapping("/list")
-    public ResponseEntity<ProductListResponse> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(WebRequest request) {
         try {
-            List<Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(new ProductListResponse(true, "Products fetched successfully", products));
+            long version = catalogVersions.catalogVersion();
+            // checkNotModified also sets the ETag header on the full response
+            if (request.checkNotModified(catalogVersions.eTag("products", version))) {
+                return null;
+            }
+            return catalogResponseCache.get("products", version, request, () ->
+                    new ProductListResponse(true, "Products fetched successfully", productService.getAllProducts()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ProductListResponse(false, "Error fetching products: " + e.getMessage()));
@@ -42,10 +64,14 @@ public class ProductController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getProductById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse> getProductById(@PathVariable String id, WebRequest request) {
         try {
+            if (request.checkNotModified(catalogVersions.eTag("product", catalogVersions.productVersion(id)))) {
+                return null;
+            }
             return productService.getProductById(id)
-                    .map(product -> ResponseEntity.ok(new ApiResponse(true, "Product found", product)))
+                    .map(product -> ResponseEntity.ok().cacheControl(CatalogVersions.CACHE_CONTROL)
+                            .body(new ApiResponse(true, "Product found", product)))
                     .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                             .body(new ApiResponse(false, "Product not found")));
         } catch (Exception e) {
@@ -54,11 +80,35 @@ public class ProductController {
         }
     }
 
+    // Product, related products, rating stats and the first review page in one response for the product page
+    @GetMapping("/{id}/page")
+    public ResponseEntity<ApiResponse> getProductPage(@PathVariable String id, WebRequest request) {
+        try {
+            // Versions share one sequence, so the max moves whenever the catalog or this product's reviews change
+            long version = Math.max(catalogVersions.catalogVersion(), catalogVersions.reviewVersion(id));
+            if (request.checkNotModified(catalogVersions.eTag("product-page-" + id, version))) {
+                return null;
+            }
+            return productPageService.getProductPage(id)
+                    .map(page -> ResponseEntity.ok().cacheControl(CatalogVersions.CACHE_CONTROL)
+                            .body(new ApiResponse(true, "Product page fetched successfully", page)))
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new ApiResponse(false, "Product not found")));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error fetching product page: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<ProductListResponse> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category, WebRequest request) {
         try {
-            List<Product> products = productService.getProductsByCategory(category);
-            return ResponseEntity.ok(new ProductListResponse(true, "Products fetched successfully", products));
+            long version = catalogVersions.catalogVersion();
+            if (request.checkNotModified(catalogVersions.eTag("category-products", version))) {
+                return null;
+            }
+            return catalogResponseCache.get("category:" + category, version, request, () ->
+                    new ProductListResponse(true, "Products fetched successfully", productService.getProductsByCategory(category)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ProductListResponse(false, "Error fetching products: " + e.getMessage()));
@@ -66,16 +116,47 @@ public class ProductController {
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<ProductListResponse> getPopularProducts() {
+    public ResponseEntity<?> getPopularProducts(WebRequest request) {
         try {
-            List<Product> products = productService.getPopularProducts();
-            return ResponseEntity.ok(new ProductListResponse(true, "Popular products fetched successfully", products));
+            long version = catalogVersions.catalogVersion();
+            if (request.checkNotModified(catalogVersions.eTag("popular", version))) {
+                return null;
+            }
+            return catalogResponseCache.get("popular", version, request, () ->
+                    new ProductListResponse(true, "Popular products fetched successfully", productService.getPopularProducts()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ProductListResponse(false, "Error fetching popular products: " + e.getMessage()));
         }
     }
 
+    // Cart and wishlist hydration: summaries for the given ids in request order, plus the ids that no longer exist
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse> getProductBatch(@RequestBody java.util.Map<String, Object> payload) {
+        try {
+            if (!(payload.get("ids") instanceof List<?> rawIds) || rawIds.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Product IDs are required"));
+            }
+            List<String> ids = rawIds.stream().map(String::valueOf).distinct().toList();
+            if (ids.size() > MAX_BATCH_IDS) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "At most " + MAX_BATCH_IDS + " products can be fetched at once"));
+            }
+
+            List<ProductSummary> products = productService.getProductSummaries(ids);
+            java.util.Set<String> found = new java.util.HashSet<>();
+            products.forEach(product -> found.add(product.getId()));
+            List<String> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+            return ResponseEntity.ok(new ApiResponse(true, "Products fetched successfully",
+                    java.util.Map.of("products", products, "missing", missing)));
+        } catch (Exception e) {
+            log.error("Error fetching product batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error fetching products: " + e.getMessage()));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse> createProduct(@RequestBody Product product) {
         try {
@@ -102,16 +183,9 @@ public class ProductController {
                 List<String> imageBase64List = new ArrayList<>();
                 for (MultipartFile image : images) {
                     try {
-                        byte[] bytes = image.getBytes();
-                        String base64 = java.util.Base64.getEncoder().encodeToString(bytes);
-                        String contentType = image.getContentType();
-                        if (contentType == null || contentType.isEmpty()) {
-                            contentType = "image/jpeg"; // default to jpeg
-                        }
-                        String dataUrl = "data:" + contentType + ";base64," + base64;
-                        imageBase64List.add(dataUrl);
+                        imageBase64List.add(ProductService.toDataUrl(image.getBytes(), image.getContentType()));
                     } catch (IOException e) {
-                        System.err.println("Error processing image: " + e.getMessage());
+                        log.warn("Error processing image: {}", e.getMessage());
                     }
                 }
                 product.setImage(imageBase64List);
@@ -126,6 +200,24 @@ public class ProductController {
         }
     }
 
+    // Bulk catalog import: raw request body with a JSON array or NDJSON in the products.json format
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse> importProducts(
+            InputStream body,
+            @RequestParam(value = "batchSize", defaultValue = "" + CatalogImportService.DEFAULT_BATCH_SIZE) int batchSize) {
+        try {
+            ImportReport report = catalogImportService.importProducts(body, batchSize);
+            boolean success = report.getFailed() == 0;
+            String message = success
+                    ? "Imported " + report.getRecords() + " products"
+                    : "Imported with " + report.getFailed() + " failed records";
+            return ResponseEntity.ok(new ApiResponse(success, message, report));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error importing products: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/remove")
     public ResponseEntity<ApiResponse> removeProduct(@RequestBody java.util.Map<String, String> payload) {
         try {
@@ -154,48 +246,38 @@ public class ProductController {
         }
     }
 
+    // Partial update: only the fields present in the payload are written. Sending the product's
+    // "version" makes the edit fail with 409 if someone else changed the product in the meantime
     @PostMapping("/update")
     public ResponseEntity<ApiResponse> updateProductPost(@RequestBody java.util.Map<String, Object> payload) {
         try {
-            System.out.println("=== UPDATE REQUEST RECEIVED ===");
-            System.out.println("Payload: " + payload);
-            
             String productId = (String) payload.get("productId");
-            System.out.println("Product ID: " + productId);
+            log.debug("Update request for product {}: {}", productId, payload.keySet());
             
             if (productId == null || productId.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(new ApiResponse(false, "Product ID is required"));
             }
             
-            // Remove productId from payload before converting to Product
-            payload.remove("productId");
-            
-            // Convert payload to Product object
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            String productJson = mapper.writeValueAsString(payload);
-            System.out.println("Product JSON: " + productJson);
-            
-            Product product = mapper.readValue(productJson, Product.class);
-            System.out.println("Parsed Product: " + product);
-            
-            Product updatedProduct = productService.updateProduct(productId, product);
-            System.out.println("Updated Product: " + updatedProduct);
+            Product updatedProduct = productService.patchProduct(productId, versionOf(payload), payload);
             
             return ResponseEntity.ok(new ApiResponse(true, "Product updated successfully", updatedProduct));
+        } catch (VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
-            System.err.println("=== UPDATE ERROR ===");
-            e.printStackTrace();
+            log.error("Error updating product", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating product: " + e.getMessage()));
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse> updateProduct(@PathVariable String id, @RequestBody Product product) {
+    public ResponseEntity<ApiResponse> updateProduct(@PathVariable String id, @RequestBody java.util.Map<String, Object> payload) {
         try {
-            Product updatedProduct = productService.updateProduct(id, product);
+            Product updatedProduct = productService.patchProduct(id, versionOf(payload), payload);
             return ResponseEntity.ok(new ApiResponse(true, "Product updated successfully", updatedProduct));
+        } catch (VersionConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating product: " + e.getMessage()));
@@ -235,29 +317,11 @@ public class ProductController {
             java.time.LocalDateTime discountStartDate = java.time.LocalDateTime.parse(startDate + "T00:00:00");
             java.time.LocalDateTime discountEndDate = java.time.LocalDateTime.parse(endDate + "T23:59:59");
             
-            for (String productId : productIds) {
-                Product product = productService.getProductById(productId).orElse(null);
-                if (product != null) {
-                    product.setHasDiscount(true);
-                    product.setDiscountPercent(discountPercent);
-                    product.setDiscountStartDate(discountStartDate);
-                    product.setDiscountEndDate(discountEndDate);
-                    
-                    // Calculate offer price based on discount
-                    Double originalPrice = product.getPrice();
-                    Double discountAmount = originalPrice * (discountPercent / 100);
-                    Double offerPrice = originalPrice - discountAmount;
-                    product.setOfferPrice(offerPrice);
-                    
-                    product.setUpdatedAt(java.time.LocalDateTime.now());
-                    productService.updateProduct(productId, product);
-                }
-            }
+            productService.applyDiscount(productIds, discountPercent, discountStartDate, discountEndDate);
             
             return ResponseEntity.ok(new ApiResponse(true, "Discount applied successfully to " + productIds.size() + " products"));
         } catch (Exception e) {
-            System.err.println("Apply discount error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error applying discount", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error applying discount: " + e.getMessage()));
         }
@@ -274,25 +338,24 @@ public class ProductController {
                         .body(new ApiResponse(false, "Product IDs are required"));
             }
             
-            for (String productId : productIds) {
-                Product product = productService.getProductById(productId).orElse(null);
-                if (product != null) {
-                    product.setHasDiscount(false);
-                    product.setDiscountPercent(0.0);
-                    product.setDiscountStartDate(null);
-                    product.setDiscountEndDate(null);
-                    product.setOfferPrice(product.getPrice()); // Reset offer price to original price
-                    product.setUpdatedAt(java.time.LocalDateTime.now());
-                    productService.updateProduct(productId, product);
-                }
-            }
+            productService.removeDiscount(productIds);
             
             return ResponseEntity.ok(new ApiResponse(true, "Discount removed successfully from " + productIds.size() + " products"));
         } catch (Exception e) {
-            System.err.println("Remove discount error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error removing discount", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error removing discount: " + e.getMessage()));
         }
     }
+
+    private Long versionOf(java.util.Map<String, Object> payload) {
+        return payload.get("version") instanceof Number version ? version.longValue() : null;
+    }
+
+    private ResponseEntity<ApiResponse> conflict(VersionConflictException e) {
+        java.util.Map<String, Object> response = new java.util.HashMap<>();
+        response.put("currentVersion", e.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse(false, e.getMessage(), response));
+    }
 }
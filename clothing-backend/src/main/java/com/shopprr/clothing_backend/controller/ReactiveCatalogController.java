@@ -0,0 +1,86 @@
+package com.shopprr.clothing_backend.controller;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shopprr.clothing_backend.dto.ApiResponse;
+import com.shopprr.clothing_backend.model.Category;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.repository.reactive.ReactiveCategoryRepository;
+import com.shopprr.clothing_backend.repository.reactive.ReactiveProductRepository;
+import com.shopprr.clothing_backend.repository.reactive.ReactiveReviewRepository;
+import com.shopprr.clothing_backend.service.ReviewService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variants of the catalog reads, backed by the reactive Mongo driver. Spring MVC
+ * serves the returned publishers asynchronously, so no request thread waits on Mongo. Lists are
+ * streamed one document per line for {@code Accept: application/x-ndjson} and collected into a
+ * JSON array otherwise.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@RequiredArgsConstructor
+public class ReactiveCatalogController {
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveCategoryRepository categoryRepository;
+    private final ReactiveReviewRepository reviewRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @GetMapping(value = "/product/list", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Product> getAllProducts() {
+        return productRepository.findAll();
+    }
+
+    @GetMapping(value = "/product/popular", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Product> getPopularProducts() {
+        return productRepository.findByPopularTrue();
+    }
+
+    @GetMapping(value = "/product/category/{category}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Product> getProductsByCategory(@PathVariable String category) {
+        return productRepository.findByCategory(category);
+    }
+
+    @GetMapping("/product/{id}")
+    public Mono<ResponseEntity<ApiResponse>> getProductById(@PathVariable String id) {
+        return productRepository.findById(id)
+                .map(product -> ResponseEntity.ok(new ApiResponse(true, "Product found", product)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse(false, "Product not found")))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse(false, "Error fetching product: " + e.getMessage()))));
+    }
+
+    @GetMapping(value = "/category/list", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Category> getActiveCategories() {
+        return categoryRepository.findByIsActiveTrue();
+    }
+
+    @GetMapping(value = "/review/product/{productId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Review> getProductReviews(@PathVariable String productId) {
+        return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId);
+    }
+
+    @GetMapping("/review/product/{productId}/stats")
+    public Mono<ResponseEntity<ApiResponse>> getProductReviewStats(@PathVariable String productId) {
+        // The same $group as the blocking endpoint, so the slow-DB comparison measures one query
+        return mongoTemplate.aggregate(ReviewService.statsHistogram(productId), Review.class, Document.class)
+                .collectList()
+                .map(buckets -> ResponseEntity.ok(new ApiResponse(true, "Stats retrieved successfully",
+                        ReviewService.statsFromHistogram(buckets))))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse(false, "Error retrieving stats: " + e.getMessage()))));
+    }
+}
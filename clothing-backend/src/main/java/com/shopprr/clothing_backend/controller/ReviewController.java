@@ -11,10 +11,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.repository.ReviewRepositoryCustom.FeedOrder;
+import com.shopprr.clothing_backend.service.CatalogVersions;
 import com.shopprr.clothing_backend.service.ReviewService;
 
 import jakarta.servlet.http.Cookie;
@@ -27,6 +31,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ReviewController {
     private final ReviewService reviewService;
+    private final CatalogVersions catalogVersions;
 
     @Data
     public static class CreateReviewRequest {
@@ -85,12 +90,15 @@ public class ReviewController {
     }
 
     @GetMapping("/product/{productId}")
-    public ResponseEntity<ApiResponse> getProductReviews(@PathVariable String productId) {
+    public ResponseEntity<ApiResponse> getProductReviews(@PathVariable String productId, WebRequest request) {
         try {
             if (productId == null || productId.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(new ApiResponse(false, "Product ID is required"));
             }
+            if (request.checkNotModified(catalogVersions.eTag("reviews", catalogVersions.reviewVersion(productId)))) {
+                return null;
+            }
 
             List<Review> reviews = reviewService.getProductReviews(productId);
 
@@ -98,13 +106,75 @@ public class ReviewController {
             response.put("reviews", reviews);
             response.put("count", reviews.size());
 
-            return ResponseEntity.ok(new ApiResponse(true, "Reviews retrieved successfully", response));
+            return ResponseEntity.ok().cacheControl(CatalogVersions.CACHE_CONTROL)
+                    .body(new ApiResponse(true, "Reviews retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving reviews: " + e.getMessage()));
+        }
+    }
+
+    // Paged feed: ?limit=&cursor=&rating=&sort=newest|helpful; pass the previous page's nextCursor to continue
+    @GetMapping("/product/{productId}/page")
+    public ResponseEntity<ApiResponse> getProductReviewPage(
+            @PathVariable String productId,
+            @RequestParam(value = "limit", defaultValue = "" + ReviewService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "rating", required = false) Integer rating,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            WebRequest request) {
+        try {
+            FeedOrder order;
+            if ("newest".equalsIgnoreCase(sort)) {
+                order = FeedOrder.NEWEST;
+            } else if ("helpful".equalsIgnoreCase(sort)) {
+                order = FeedOrder.HELPFUL;
+            } else {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Sort must be newest or helpful"));
+            }
+            if (rating != null && (rating < 1 || rating > 5)) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Rating must be between 1 and 5"));
+            }
+
+            String resource = "reviews-page-" + order + "-" + rating + "-" + limit + "-" + cursor;
+            if (request.checkNotModified(catalogVersions.eTag(resource, catalogVersions.reviewVersion(productId)))) {
+                return null;
+            }
+
+            Map<String, Object> response = reviewService.getReviewPage(productId, rating, order, cursor, limit);
+            return ResponseEntity.ok().cacheControl(CatalogVersions.CACHE_CONTROL)
+                    .body(new ApiResponse(true, "Reviews retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error retrieving reviews: " + e.getMessage()));
         }
     }
 
+    @PostMapping("/{reviewId}/helpful")
+    public ResponseEntity<ApiResponse> markReviewHelpful(
+            @PathVariable String reviewId,
+            HttpServletRequest httpRequest) {
+        try {
+            String userId = getUserIdFromCookie(httpRequest);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse(false, "Please login"));
+            }
+
+            boolean counted = reviewService.markHelpful(reviewId, userId);
+            return ResponseEntity.ok(new ApiResponse(true,
+                    counted ? "Thanks for your feedback" : "You already marked this review as helpful"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error recording feedback: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/delete")
     public ResponseEntity<ApiResponse> deleteReview(
             @RequestBody Map<String, String> payload,
@@ -131,43 +201,20 @@ public class ReviewController {
     }
 
     @GetMapping("/product/{productId}/stats")
-    public ResponseEntity<ApiResponse> getProductReviewStats(@PathVariable String productId) {
+    public ResponseEntity<ApiResponse> getProductReviewStats(@PathVariable String productId, WebRequest request) {
         try {
             if (productId == null || productId.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(new ApiResponse(false, "Product ID is required"));
             }
-
-            List<Review> reviews = reviewService.getProductReviews(productId);
-            
-            // Calculate stats
-            int totalReviews = reviews.size();
-            double averageRating = 0.0;
-            Map<Integer, Long> ratingDistribution = new HashMap<>();
-            
-            if (totalReviews > 0) {
-                // Calculate average rating
-                int totalRating = reviews.stream()
-                    .mapToInt(Review::getRating)
-                    .sum();
-                averageRating = (double) totalRating / totalReviews;
-                
-                // Calculate rating distribution
-                for (int i = 1; i <= 5; i++) {
-                    final int rating = i;
-                    long count = reviews.stream()
-                        .filter(r -> r.getRating() == rating)
-                        .count();
-                    ratingDistribution.put(rating, count);
-                }
+            if (request.checkNotModified(catalogVersions.eTag("review-stats", catalogVersions.reviewVersion(productId)))) {
+                return null;
             }
 
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalReviews", totalReviews);
-            stats.put("averageRating", Math.round(averageRating * 10.0) / 10.0);
-            stats.put("ratingDistribution", ratingDistribution);
+            Map<String, Object> stats = reviewService.getProductStats(productId);
 
-            return ResponseEntity.ok(new ApiResponse(true, "Stats retrieved successfully", stats));
+            return ResponseEntity.ok().cacheControl(CatalogVersions.CACHE_CONTROL)
+                    .body(new ApiResponse(true, "Stats retrieved successfully", stats));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error retrieving stats: " + e.getMessage()));
@@ -3,6 +3,7 @@ package com.shopprr.clothing_backend.controller;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CookieValue;
@@ -12,17 +13,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.shopprr.clothing_backend.dto.ApiResponse;
 import com.shopprr.clothing_backend.dto.LoginRequest;
 import com.shopprr.clothing_backend.model.User;
 import com.shopprr.clothing_backend.service.UserService;
+import com.shopprr.clothing_backend.service.VersionConflictException;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
@@ -54,32 +59,22 @@ public class UserController {
     @PostMapping("/login")
     public ResponseEntity<ApiResponse> login(@RequestBody LoginRequest loginRequest, HttpServletResponse response) {
         try {
-            System.out.println("=== LOGIN DEBUG ===");
-            System.out.println("Email: " + loginRequest.getEmail());
-            System.out.println("Password length: " + loginRequest.getPassword().length());
-            
             User user = userService.findByEmail(loginRequest.getEmail())
                     .orElse(null);
             
             if (user == null) {
-                System.out.println("User not found!");
+                log.debug("Login failed: no user for email {}", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ApiResponse(false, "Invalid email or password"));
             }
             
-            System.out.println("User found: " + user.getEmail());
-            System.out.println("Stored hash: " + user.getPassword());
-            
             boolean passwordMatches = userService.verifyPassword(loginRequest.getPassword(), user.getPassword());
-            System.out.println("Password matches: " + passwordMatches);
-            
             if (!passwordMatches) {
+                log.debug("Login failed: wrong password for user {}", user.getId());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ApiResponse(false, "Invalid email or password"));
             }
             
-            System.out.println("Setting cookie for user: " + user.getId());
-            
             // ✅ SET COOKIE với SameSite=None cho cross-origin (localhost:5173 → localhost:8080)
             Cookie cookie = new Cookie("user_session", user.getId());
             cookie.setMaxAge(7 * 24 * 60 * 60); // 7 ngày
@@ -98,7 +93,7 @@ public class UserController {
             );
             response.addHeader("Set-Cookie", cookieHeader);
             
-            System.out.println("✅ Cookie 'user_session' set with SameSite=None for user: " + user.getId());
+            log.debug("Login succeeded for user {}", user.getId());
             
             Map<String, Object> userData = new HashMap<>();
             userData.put("id", user.getId());
@@ -177,6 +172,31 @@ public class UserController {
         }
     }
 
+    // Paged admin user list with display fields only; q searches by name prefix, or email prefix if it contains '@'
+    @GetMapping("/list")
+    public ResponseEntity<ApiResponse> listUsers(
+            @RequestParam(value = "q", required = false) String search,
+            @RequestParam(value = "sort", defaultValue = "name") String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+            @CookieValue(value = "user_session", required = false) String userId) {
+        try {
+            User user = userId != null ? userService.findById(userId).orElse(null) : null;
+            if (user == null || (!"admin".equals(user.getRole()) && !"staff".equals(user.getRole()))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Access denied. Admin or staff role required."));
+            }
+            return ResponseEntity.ok(new ApiResponse(true, "Users retrieved successfully",
+                    userService.getUserPage(search, "spend".equalsIgnoreCase(sort), cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "Error retrieving users: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/update")
     public ResponseEntity<ApiResponse> updateCustomer(@RequestBody Map<String, Object> request) {
         try {
@@ -186,21 +206,17 @@ public class UserController {
                         .body(new ApiResponse(false, "customerId is required"));
             }
             
-            User existingUser = userService.findById(customerId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            // Update fields
-            if (request.containsKey("name")) existingUser.setName((String) request.get("name"));
-            if (request.containsKey("email")) existingUser.setEmail((String) request.get("email"));
-            if (request.containsKey("phone")) existingUser.setPhone((String) request.get("phone"));
-            if (request.containsKey("address")) existingUser.setAddress((String) request.get("address"));
-            if (request.containsKey("gender")) existingUser.setGender((String) request.get("gender"));
+            // Only the fields present in the request are written
+            Update update = new Update();
+            for (String field : new String[] {"name", "email", "phone", "address", "gender"}) {
+                if (request.containsKey(field)) update.set(field, request.get(field));
+            }
             if (request.containsKey("age")) {
                 Object ageObj = request.get("age");
                 if (ageObj instanceof Integer) {
-                    existingUser.setAge((Integer) ageObj);
+                    update.set("age", ageObj);
                 } else if (ageObj instanceof String && !((String) ageObj).isEmpty()) {
-                    existingUser.setAge(Integer.parseInt((String) ageObj));
+                    update.set("age", Integer.parseInt((String) ageObj));
                 }
             }
             
@@ -208,16 +224,22 @@ public class UserController {
             if (request.containsKey("password") && request.get("password") != null) {
                 String newPassword = (String) request.get("password");
                 if (!newPassword.isEmpty()) {
-                    existingUser.setPassword(userService.hashPassword(newPassword));
+                    update.set("password", userService.hashPassword(newPassword));
                 }
             }
             
-            User updatedUser = userService.updateUser(customerId, existingUser);
+            Long version = request.get("version") instanceof Number number ? number.longValue() : null;
+            User updatedUser = userService.patchUser(customerId, version, update);
             
             Map<String, Object> response = new HashMap<>();
             response.put("user", updatedUser);
             
             return ResponseEntity.ok(new ApiResponse(true, "Customer updated successfully", response));
+        } catch (VersionConflictException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("currentVersion", e.getCurrentVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, e.getMessage(), response));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating customer: " + e.getMessage()));
@@ -249,23 +271,26 @@ public class UserController {
     @PutMapping("/update/{id}")
     public ResponseEntity<ApiResponse> updateUserInfo(@PathVariable String id, @RequestBody User userUpdate) {
         try {
-            User existingUser = userService.findById(id)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
             // Update fields
-            if (userUpdate.getName() != null) existingUser.setName(userUpdate.getName());
-            if (userUpdate.getEmail() != null) existingUser.setEmail(userUpdate.getEmail());
-            if (userUpdate.getPhone() != null) existingUser.setPhone(userUpdate.getPhone());
-            if (userUpdate.getAddress() != null) existingUser.setAddress(userUpdate.getAddress());
-            if (userUpdate.getGender() != null) existingUser.setGender(userUpdate.getGender());
-            if (userUpdate.getDateOfBirth() != null) existingUser.setDateOfBirth(userUpdate.getDateOfBirth());
+            Update update = new Update();
+            if (userUpdate.getName() != null) update.set("name", userUpdate.getName());
+            if (userUpdate.getEmail() != null) update.set("email", userUpdate.getEmail());
+            if (userUpdate.getPhone() != null) update.set("phone", userUpdate.getPhone());
+            if (userUpdate.getAddress() != null) update.set("address", userUpdate.getAddress());
+            if (userUpdate.getGender() != null) update.set("gender", userUpdate.getGender());
+            if (userUpdate.getDateOfBirth() != null) update.set("dateOfBirth", userUpdate.getDateOfBirth());
             
-            User updatedUser = userService.updateUser(id, existingUser);
+            User updatedUser = userService.patchUser(id, userUpdate.getVersion(), update);
             
             Map<String, Object> response = new HashMap<>();
             response.put("user", updatedUser);
             
             return ResponseEntity.ok(new ApiResponse(true, "User updated successfully", response));
+        } catch (VersionConflictException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("currentVersion", e.getCurrentVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, e.getMessage(), response));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating user: " + e.getMessage()));
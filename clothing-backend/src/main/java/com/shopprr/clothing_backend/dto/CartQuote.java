@@ -0,0 +1,50 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+public class CartQuote {
+    public static final String NOT_FOUND = "not_found";
+    public static final String OUT_OF_STOCK = "out_of_stock";
+
+    private Long cartVersion;
+    private List<Line> lines = new ArrayList<>();
+    private double subtotal; // available lines only
+    private int itemCount;
+    private boolean checkoutReady; // every line exists and is in stock
+    private LocalDateTime quotedAt;
+    private LocalDateTime validUntil;
+    @JsonIgnore
+    private Map<String, Long> productVersions = new HashMap<>(); // CatalogVersions tags the prices were read at
+
+    @Data
+    @AllArgsConstructor
+    public static class Line {
+        private String productId;
+        private String name;
+        private String size;
+        private int quantity;
+        private Double unitPrice; // null if the product no longer exists
+        private double lineTotal;
+        private String problem; // NOT_FOUND, OUT_OF_STOCK or null
+    }
+
+    // Quoted line of a product that still exists, or null if the quote has none
+    public Line line(String productId) {
+        for (Line line : lines) {
+            if (line.getProductId().equals(productId) && line.getUnitPrice() != null) {
+                return line;
+            }
+        }
+        return null;
+    }
+}
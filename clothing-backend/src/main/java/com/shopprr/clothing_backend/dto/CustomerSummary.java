@@ -0,0 +1,50 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.shopprr.clothing_backend.model.User;
+
+import lombok.Data;
+
+// A row of the admin customer list; no password hash or cart
+@Data
+public class CustomerSummary {
+    @JsonProperty("_id")
+    private String id;
+    private String name;
+    private String email;
+    private String phone;
+    private String address;
+    private Integer age;
+    private String gender;
+    private String role;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private Integer orderCount;
+    private Double lifetimeSpend;
+    private LocalDateTime lastOrderAt;
+
+    public static final String[] FIELDS = {
+            "name", "email", "phone", "address", "age", "gender", "role", "isActive", "createdAt", "orderStats"};
+
+    public static CustomerSummary from(User user) {
+        CustomerSummary summary = new CustomerSummary();
+        summary.setId(user.getId());
+        summary.setName(user.getName());
+        summary.setEmail(user.getEmail());
+        summary.setPhone(user.getPhone());
+        summary.setAddress(user.getAddress());
+        summary.setAge(user.getAge());
+        summary.setGender(user.getGender());
+        summary.setRole(user.getRole());
+        summary.setIsActive(user.getIsActive());
+        summary.setCreatedAt(user.getCreatedAt());
+        if (user.getOrderStats() != null) {
+            summary.setOrderCount(user.getOrderStats().getOrderCount());
+            summary.setLifetimeSpend(user.getOrderStats().getLifetimeSpend());
+            summary.setLastOrderAt(user.getOrderStats().getLastOrderAt());
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,37 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+public class ImportReport {
+    private long records;
+    private long inserted;
+    private long updated;
+    private long notFound; // partial records whose _id matched no product
+    private long failed;
+    private long durationMs;
+    private boolean errorsTruncated;
+    private List<RecordError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RecordError {
+        private long record; // 1-based position in the input
+        private String id;
+        private String message;
+    }
+
+    // Keeps the error list bounded; failures past the limit are only counted
+    public void addError(long record, String id, String message, int maxErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RecordError(record, id, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
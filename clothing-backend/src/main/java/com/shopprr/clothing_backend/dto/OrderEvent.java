@@ -0,0 +1,68 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.shopprr.clothing_backend.model.Order;
+
+import lombok.Data;
+
+// Incremental change pushed to admin dashboards over /api/order/events
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderEvent {
+    public static final String CREATED = "created";
+    public static final String STATUS_CHANGED = "status_changed";
+    public static final String ADDRESS_UPDATED = "address_updated";
+    public static final String DELETED = "deleted";
+    public static final String RESYNC = "resync"; // events were lost; reload the list
+
+    private long sequence;
+    private String type;
+    private String orderId;
+    private String userId;
+    private String status;
+    private String previousStatus;
+    private Order.Address address;
+    private Double totalAmount;
+    private Integer itemCount;
+    private LocalDateTime timestamp;
+
+    public static OrderEvent created(Order order) {
+        OrderEvent event = of(CREATED, order.getId());
+        event.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        event.setStatus(order.getStatus());
+        event.setTotalAmount(order.getTotalAmount());
+        event.setItemCount(order.getItems() != null ? order.getItems().size() : 0);
+        return event;
+    }
+
+    public static OrderEvent statusChanged(String orderId, String previousStatus, String status) {
+        OrderEvent event = of(STATUS_CHANGED, orderId);
+        event.setPreviousStatus(previousStatus);
+        event.setStatus(status);
+        return event;
+    }
+
+    public static OrderEvent addressUpdated(String orderId, Order.Address address) {
+        OrderEvent event = of(ADDRESS_UPDATED, orderId);
+        event.setAddress(address);
+        return event;
+    }
+
+    public static OrderEvent deleted(String orderId) {
+        return of(DELETED, orderId);
+    }
+
+    public static OrderEvent resync() {
+        return of(RESYNC, null);
+    }
+
+    private static OrderEvent of(String type, String orderId) {
+        OrderEvent event = new OrderEvent();
+        event.setType(type);
+        event.setOrderId(orderId);
+        event.setTimestamp(LocalDateTime.now());
+        return event;
+    }
+}
@@ -18,6 +18,7 @@ public class OrderResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean isPaid = false;
+    private Long version; // echo back on /api/order/update to detect concurrent edits
     
     @Data
     public static class OrderItemResponse {
@@ -46,6 +47,7 @@ public class OrderResponse {
         response.setStatus(order.getStatus());
         response.setCreatedAt(order.getCreatedAt());
         response.setUpdatedAt(order.getUpdatedAt());
+        response.setVersion(order.getVersion());
         response.setIsPaid(false); // Default to false, can be updated based on payment status
         
         // Convert items with product info
@@ -0,0 +1,38 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+public class OrderStatusBatchResult {
+    public static final String UPDATED = "updated";
+    public static final String UNCHANGED = "unchanged"; // already in the requested status
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID_TRANSITION = "invalid_transition";
+    public static final String CONFLICT = "conflict"; // status changed between the read and the write
+
+    private String status;
+    private long updated;
+    private long skipped;
+    private List<OrderResult> results = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class OrderResult {
+        private String orderId;
+        private String result;
+        private String previousStatus;
+    }
+
+    public void add(String orderId, String result, String previousStatus) {
+        results.add(new OrderResult(orderId, result, previousStatus));
+    }
+
+    public void count() {
+        updated = results.stream().filter(r -> UPDATED.equals(r.getResult())).count();
+        skipped = results.size() - updated;
+    }
+}
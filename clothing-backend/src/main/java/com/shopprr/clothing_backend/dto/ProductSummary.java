@@ -0,0 +1,40 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.shopprr.clothing_backend.model.Product;
+
+import lombok.Data;
+
+// What cart and wishlist rows render; field names match Product so the UI can use either
+@Data
+public class ProductSummary {
+    @JsonProperty("_id")
+    private String id;
+    private String name;
+    private List<String> image; // first image only
+    private String category;
+    private Double price;
+    private Double offerPrice;
+    private List<String> sizes;
+    private Boolean inStock;
+    private Boolean hasDiscount;
+    private Double discountPercent;
+
+    public static ProductSummary from(Product product) {
+        ProductSummary summary = new ProductSummary();
+        summary.setId(product.getId());
+        summary.setName(product.getName());
+        summary.setImage(product.getImage() != null && !product.getImage().isEmpty()
+                ? List.of(product.getImage().get(0)) : List.of());
+        summary.setCategory(product.getCategory());
+        summary.setPrice(product.getPrice());
+        summary.setOfferPrice(product.getOfferPrice());
+        summary.setSizes(product.getSizes());
+        summary.setInStock(product.getInStock());
+        summary.setHasDiscount(product.getHasDiscount());
+        summary.setDiscountPercent(product.getDiscountPercent());
+        return summary;
+    }
+}
@@ -0,0 +1,25 @@
+package com.shopprr.clothing_backend.dto;
+
+import java.time.Instant;
+
+import lombok.Data;
+
+@Data
+public class SlowOperation {
+    private Instant timestamp;
+    private String database;
+    private String collection;
+    private String command;
+    private long durationMs;
+    private String shape; // command with literal values replaced by "?"
+    private Long docsReturned;
+    private String caller; // first application frame, plus the repository method when called through one
+    private String error;
+
+    // Filled in by the explain thread when the shape was sampled, after the operation is already
+    // visible through the ring buffer, so these are volatile
+    private volatile Long docsExamined;
+    private volatile Long keysExamined;
+    private volatile String plan;
+    private volatile String explain;
+}
@@ -0,0 +1,24 @@
+package com.shopprr.clothing_backend.migration;
+
+import org.springframework.stereotype.Component;
+
+import com.shopprr.clothing_backend.service.CustomerOrderStatsService;
+
+import lombok.RequiredArgsConstructor;
+
+// Computes order stats for customers that predate them; users registered since start with zeroed stats
+@Component
+@RequiredArgsConstructor
+public class CustomerOrderStatsMigration implements Migration {
+    private final CustomerOrderStatsService customerOrderStatsService;
+
+    @Override
+    public String getId() {
+        return "004-customer-order-stats";
+    }
+
+    @Override
+    public void apply() {
+        customerOrderStatsService.initialiseMissing();
+    }
+}
@@ -0,0 +1,41 @@
+package com.shopprr.clothing_backend.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.User;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sets {@code version} 0 on orders, products and users written before they had one. Spring Data
+ * treats an entity with a null version as new, so saving such a document tries to insert it again
+ * and fails with a duplicate key until this has run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentVersionsMigration implements Migration {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String getId() {
+        return "001-document-versions";
+    }
+
+    @Override
+    public void apply() {
+        for (Class<?> type : new Class<?>[] {Order.class, Product.class, User.class}) {
+            UpdateResult result = mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), type);
+            log.info("Set version on {} {} documents", result.getModifiedCount(), mongoTemplate.getCollectionName(type));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.shopprr.clothing_backend.migration;
+
+/**
+ * A one-off data change, applied once per database by {@link SchemaMigrations}. It must still be
+ * idempotent: two nodes starting at the same time may both apply it, and a migration that fails
+ * halfway is applied again on the next start.
+ */
+public interface Migration {
+
+    // Recorded in schema_migrations once applied; migrations run in id order
+    String getId();
+
+    void apply();
+}
@@ -0,0 +1,64 @@
+package com.shopprr.clothing_backend.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.model.ReviewVote;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sets {@code helpfulCount} 0 on reviews written before it existed, as keyset pages sorted by
+ * helpfulness compare on it, and moves {@code helpfulVoters} arrays to {@code review_votes}, one
+ * document per vote.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewHelpfulVotesMigration implements Migration {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String getId() {
+        return "002-review-helpful-votes";
+    }
+
+    @Override
+    public void apply() {
+        UpdateResult counted = mongoTemplate.updateMulti(Query.query(Criteria.where("helpfulCount").exists(false)),
+                new Update().set("helpfulCount", 0), Review.class);
+        log.info("Set helpfulCount on {} reviews", counted.getModifiedCount());
+
+        // $merge needs the unique {reviewId, userId} index, which MongoIndexInitializer may not have created
+        // yet; merging on it makes a rerun after a partial move harmless
+        IndexOperations votes = mongoTemplate.indexOps(ReviewVote.class);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(ReviewVote.class).forEach(votes::createIndex);
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("helpfulVoters", new Document("$exists", true))),
+                new Document("$unwind", "$helpfulVoters"),
+                new Document("$project", new Document("_id", 0).append("reviewId", new Document("$toString", "$_id"))
+                        .append("userId", "$helpfulVoters")
+                        .append("createdAt", new Document("$ifNull", List.of("$createdAt", "$$NOW")))),
+                new Document("$merge", new Document("into", mongoTemplate.getCollectionName(ReviewVote.class))
+                        .append("on", List.of("reviewId", "userId"))
+                        .append("whenMatched", "keepExisting")
+                        .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Review.class)).aggregate(pipeline).toCollection();
+        UpdateResult moved = mongoTemplate.updateMulti(Query.query(Criteria.where("helpfulVoters").exists(true)),
+                new Update().unset("helpfulVoters"), Review.class);
+        log.info("Moved helpful votes of {} reviews to {}", moved.getModifiedCount(),
+                mongoTemplate.getCollectionName(ReviewVote.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.shopprr.clothing_backend.migration;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the {@link Migration}s that are not yet recorded in {@code schema_migrations}. Runs on its
+ * own thread once the app is up, so a node start costs one lookup per migration once they are all
+ * applied, and an unreachable Mongo does not stop the app from starting. A failed migration is
+ * logged and retried on the next start; the ones after it wait, as they may depend on it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrations {
+    public static final String COLLECTION = "schema_migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final List<Migration> migrations;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::applyPending, "schema-migrations");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void applyPending() {
+        for (Migration migration : migrations.stream().sorted(Comparator.comparing(Migration::getId)).toList()) {
+            try {
+                if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(migration.getId())), COLLECTION)) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                migration.apply();
+                mongoTemplate.save(new Document("_id", migration.getId()).append("appliedAt", new Date()), COLLECTION);
+                log.info("Applied migration {} in {} ms", migration.getId(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                log.warn("Migration {} failed, retrying on the next start: {}", migration.getId(), e.getMessage());
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.shopprr.clothing_backend.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shopprr.clothing_backend.model.User;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Sets nameKey, the lower-cased name the admin user list searches and sorts on, for users that predate it
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameKeyMigration implements Migration {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String getId() {
+        return "003-user-name-key";
+    }
+
+    @Override
+    public void apply() {
+        UpdateResult result = mongoTemplate.updateMulti(Query.query(Criteria.where("nameKey").exists(false)),
+                AggregationUpdate.update().set("nameKey").toValue(StringOperators.valueOf("name").toLower()), User.class);
+        log.info("Set nameKey on {} users", result.getModifiedCount());
+    }
+}
@@ -0,0 +1,20 @@
+package com.shopprr.clothing_backend.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+// One small document per customer: the products they have ordered and when they first did
+@Data
+@Document(collection = "customer_purchases")
+public class CustomerPurchases {
+    @Id
+    private String userId;
+
+    private Map<String, LocalDateTime> products = new HashMap<>(); // product id -> first order date
+}
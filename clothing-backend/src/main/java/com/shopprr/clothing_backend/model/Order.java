@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +14,8 @@ import lombok.Data;
 
 @Data
 @Document(collection = "orders")
+// Verified-purchase fallback for orders placed before customer_purchases existed; items.product makes it multikey
+@CompoundIndex(name = "user_product_created", def = "{'user.$id': 1, 'items.product': 1, 'createdAt': 1}")
 public class Order {
     @Id
     private String id;
@@ -23,8 +28,11 @@ public class Order {
     private String paymentMethod; // "COD" or "Stripe"
     private Double totalAmount;
     private String status; // "pending", "processing", "shipped", "delivered", "cancelled"
+    @Indexed // date-range scans for the order export
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @Version // bumped by every write; partial updates are conditional on it
+    private Long version;
     
     @Data
     public static class OrderItem {
@@ -0,0 +1,51 @@
+package com.shopprr.clothing_backend.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+
+// An accepted checkout waiting for the order pipeline; the order it produces reuses this id
+@Data
+@Document(collection = "order_tickets")
+@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}")
+public class OrderTicket {
+    public static final String QUEUED = "queued";
+    public static final String PROCESSING = "processing";
+    public static final String COMPLETED = "completed";
+    public static final String REJECTED = "rejected";
+    public static final String FAILED = "failed";
+
+    @Id
+    @JsonProperty("_id")
+    private String id;
+
+    private String userId;
+    private List<Order.OrderItem> items;
+    private Order.Address address;
+    private String paymentMethod;
+    private String status; // "queued", "processing", "completed", "rejected", "failed"
+    private String orderId;
+    private String error;
+    private Integer attempts = 0;
+
+    @JsonIgnore
+    private String claimedBy;
+    @JsonIgnore
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    public boolean isDone() {
+        return COMPLETED.equals(status) || REJECTED.equals(status) || FAILED.equals(status);
+    }
+}
@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -27,6 +29,7 @@ public class Product {
     
     private Double price;
     private Double offerPrice;
+    @Indexed // category listings and related products
     private String category;
     
     @Field("sizes")
@@ -48,4 +51,6 @@ public class Product {
     
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
+    @Version // bumped by every write; partial updates are conditional on it
+    private Long version;
 }
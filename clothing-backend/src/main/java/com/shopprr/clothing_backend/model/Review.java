@@ -3,6 +3,8 @@ package com.shopprr.clothing_backend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -11,6 +13,13 @@ import lombok.Data;
 
 @Data
 @Document(collection = "reviews")
+// One index per feed order, with and without the rating filter, so every keyset page is a bounded index scan
+@CompoundIndexes({
+    @CompoundIndex(name = "product_newest", def = "{'productId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "product_helpful", def = "{'productId': 1, 'helpfulCount': -1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "product_rating_newest", def = "{'productId': 1, 'rating': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "product_rating_helpful", def = "{'productId': 1, 'rating': 1, 'helpfulCount': -1, 'createdAt': -1, '_id': -1}")
+})
 public class Review {
     @Id
     @JsonProperty("_id")
@@ -25,6 +34,7 @@ public class Review {
     private String userAvatar;
     private Boolean verified = false;
     private LocalDateTime purchaseDate;
+    private Integer helpfulCount = 0; // who voted is in review_votes
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 }
@@ -0,0 +1,22 @@
+package com.shopprr.clothing_backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+// One "helpful" vote; the unique index is what limits a user to one vote per review
+@Data
+@Document(collection = "review_votes")
+@CompoundIndex(name = "review_user", def = "{'reviewId': 1, 'userId': 1}", unique = true)
+public class ReviewVote {
+    @Id
+    private String id;
+
+    private String reviewId;
+    private String userId;
+    private LocalDateTime createdAt;
+}
@@ -3,19 +3,33 @@ package com.shopprr.clothing_backend.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
 @Document(collection = "users")
+@CompoundIndexes({
+    // Admin listing: name-prefix search and keyset pages in name order; the email one also serves login
+    @CompoundIndex(name = "name_key", def = "{'nameKey': 1, '_id': 1}"),
+    @CompoundIndex(name = "email_id", def = "{'email': 1, '_id': 1}"),
+    @CompoundIndex(name = "lifetime_spend", def = "{'orderStats.lifetimeSpend': -1, '_id': 1}")
+})
 public class User {
     @Id
     private String id;
     private String name;
+    @JsonIgnore
+    private String nameKey = ""; // lower-case name, kept in step by setName
     private String email;
     private String password;
     private String phone;
@@ -24,9 +38,28 @@ public class User {
     private LocalDate dateOfBirth;
     private String gender;
     private Map<String, Map<String, Integer>> cartData = new HashMap<>();
+    private OrderStats orderStats = new OrderStats(); // maintained by CustomerOrderStatsService
     private String role = "customer"; // customer, staff, admin
     private Boolean emailVerified = false;
     private Boolean isActive = true;
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
+    @Version // bumped by every write; partial updates are conditional on it
+    private Long version;
+
+    @Data
+    public static class OrderStats {
+        private Integer orderCount = 0; // cancelled orders excluded
+        private Double lifetimeSpend = 0.0; // cancelled orders excluded
+        private LocalDateTime lastOrderAt; // most recent order placed, cancelled or not
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = nameKey(name);
+    }
+
+    public static String nameKey(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
 }
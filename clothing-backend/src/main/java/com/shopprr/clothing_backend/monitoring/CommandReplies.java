@@ -0,0 +1,46 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonNumber;
+import org.bson.BsonValue;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+// Helpers for reading counts out of Mongo command replies
+final class CommandReplies {
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private CommandReplies() {
+    }
+
+    static Long docsReturned(String commandName, BsonDocument response) {
+        BsonDocument cursor = response.isDocument("cursor") ? response.getDocument("cursor") : null;
+        if (cursor != null) {
+            BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+            return batch != null && batch.isArray() ? (long) batch.asArray().size() : null;
+        }
+        if (commandName.equals("findAndModify")) {
+            BsonValue value = response.get("value");
+            return value != null && value.isDocument() ? 1L : 0L;
+        }
+        if (commandName.equals("distinct") && response.isArray("values")) {
+            return (long) response.getArray("values").size();
+        }
+        return longValue(response.get("n"));
+    }
+
+    // The driver does not expose the wire size of a reply, so re-encode it
+    static long sizeInBytes(BsonDocument response) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            CODEC.encode(writer, response, EncoderContext.builder().build());
+        }
+        return buffer.getSize();
+    }
+
+    static Long longValue(BsonValue value) {
+        return value instanceof BsonNumber number ? number.longValue() : null;
+    }
+}
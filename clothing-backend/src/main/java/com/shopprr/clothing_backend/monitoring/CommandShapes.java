@@ -0,0 +1,184 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * Turns Mongo commands into shapes that are safe to log and stable to group by: literal values
+ * become {@code "?"}, while keys, operators, field references and sort/projection specs are kept.
+ */
+final class CommandShapes {
+    // Driver/session bookkeeping that is neither part of the shape nor valid in an explain
+    static final Set<String> SESSION_FIELDS = Set.of("lsid", "$clusterTime", "$db", "txnNumber", "$readPreference",
+            "signature", "autocommit", "startTransaction", "apiVersion", "apiStrict", "apiDeprecationErrors");
+    private static final Set<String> VERBATIM_FIELDS = Set.of("sort", "projection", "hint", "$sort", "$project", "key");
+    private static final Set<String> PAYLOAD_FIELDS = Set.of("documents", "updates", "deletes");
+    private static final Set<String> EXPLAIN_LITERAL_FIELDS = Set.of("parsedQuery", "filter", "indexBounds",
+            "$match", "slotBasedPlan");
+    private static final BsonString REDACTED = new BsonString("?");
+
+    private CommandShapes() {
+    }
+
+    /**
+     * Copy of a command without its session fields, for {@link #shapeOf} and an explain, or null if
+     * it is larger than about {@code maxBytes}; copying stops as soon as that budget is spent.
+     */
+    static BsonDocument retain(BsonDocument command, int maxBytes) {
+        BsonValue copy = copy(command, new Budget(maxBytes), true);
+        return copy != null ? copy.asDocument() : null;
+    }
+
+    private static BsonValue copy(BsonValue value, Budget budget, boolean command) {
+        if (value.isDocument()) {
+            BsonDocument copy = new BsonDocument();
+            for (Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                if (command && SESSION_FIELDS.contains(field.getKey())) {
+                    continue;
+                }
+                BsonValue child = budget.charge(field.getKey().length()) ? copy(field.getValue(), budget, false) : null;
+                if (child == null) {
+                    return null;
+                }
+                copy.append(field.getKey(), child);
+            }
+            return copy;
+        }
+        if (value.isArray()) {
+            BsonArray copy = new BsonArray();
+            for (BsonValue element : value.asArray()) {
+                BsonValue child = copy(element, budget, false);
+                if (child == null) {
+                    return null;
+                }
+                copy.add(child);
+            }
+            return copy;
+        }
+        int size = value.isString() ? value.asString().getValue().length()
+                : value.isBinary() ? value.asBinary().getData().length : 8;
+        return budget.charge(size) ? value : null;
+    }
+
+    // Rough encoded size left for a copy
+    private static final class Budget {
+        private int remaining;
+
+        Budget(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean charge(int bytes) {
+            remaining -= bytes;
+            return remaining >= 0;
+        }
+    }
+
+    // Number of statements in a bulk write, or 0 for other commands
+    static int statementCount(BsonDocument command) {
+        for (String key : PAYLOAD_FIELDS) {
+            if (command.isArray(key)) {
+                return command.getArray(key).size();
+            }
+        }
+        return 0;
+    }
+
+    static BsonDocument shapeOf(BsonDocument command, String commandName) {
+        BsonDocument shape = new BsonDocument();
+        for (String key : command.keySet()) {
+            if (SESSION_FIELDS.contains(key)) {
+                continue;
+            }
+            BsonValue value = command.get(key);
+            if (key.equals(commandName)) {
+                shape.append(key, value); // collection name
+            } else if (PAYLOAD_FIELDS.contains(key) && value.isArray()) {
+                // Bulk writes: one statement is representative, the rest would only repeat it
+                BsonArray statements = value.asArray();
+                BsonArray first = new BsonArray();
+                if (!statements.isEmpty()) {
+                    first.add(redact(statements.get(0)));
+                }
+                shape.append(key, first);
+                shape.append("statements", new BsonString(Integer.toString(statements.size())));
+            } else if (VERBATIM_FIELDS.contains(key)) {
+                shape.append(key, value);
+            } else {
+                shape.append(key, redact(value));
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Explain output with the literals it repeats from the command redacted: the command itself, the
+     * parsed query, stage filters, index bounds and slot-based plan dumps. Plan stages, index names
+     * and execution counters are kept.
+     */
+    static BsonDocument redactExplain(BsonDocument explain) {
+        BsonDocument redacted = new BsonDocument();
+        for (Map.Entry<String, BsonValue> field : explain.entrySet()) {
+            String key = field.getKey();
+            BsonValue value = field.getValue();
+            if (key.equals("command") && value.isDocument() && !value.asDocument().isEmpty()) {
+                redacted.append(key, shapeOf(value.asDocument(), value.asDocument().getFirstKey()));
+            } else if (EXPLAIN_LITERAL_FIELDS.contains(key)) {
+                redacted.append(key, redact(value));
+            } else {
+                redacted.append(key, redactExplainValue(value));
+            }
+        }
+        return redacted;
+    }
+
+    private static BsonValue redactExplainValue(BsonValue value) {
+        if (value.isDocument()) {
+            return redactExplain(value.asDocument());
+        }
+        if (value.isArray()) {
+            BsonArray redacted = new BsonArray();
+            for (BsonValue element : value.asArray()) {
+                redacted.add(redactExplainValue(element));
+            }
+            return redacted;
+        }
+        return value;
+    }
+
+    private static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument source = value.asDocument();
+            BsonDocument redacted = new BsonDocument();
+            for (String key : source.keySet()) {
+                BsonValue child = source.get(key);
+                redacted.append(key, VERBATIM_FIELDS.contains(key) ? child : redact(child));
+            }
+            return redacted;
+        }
+        if (value.isArray()) {
+            // Scalar lists ($in values) collapse to one placeholder; pipelines and $and/$or keep every stage
+            BsonArray source = value.asArray();
+            BsonArray redacted = new BsonArray();
+            boolean scalarsAdded = false;
+            for (BsonValue child : source) {
+                if (child.isDocument() || child.isArray()) {
+                    redacted.add(redact(child));
+                } else if (!scalarsAdded) {
+                    redacted.add(redact(child));
+                    scalarsAdded = true;
+                }
+            }
+            return redacted;
+        }
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value; // field path such as "$productId"
+        }
+        return REDACTED;
+    }
+}
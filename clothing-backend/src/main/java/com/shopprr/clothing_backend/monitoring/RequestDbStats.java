@@ -0,0 +1,154 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Mongo round trips, documents and reply bytes attributed to the current HTTP request (or to a
+ * block wrapped with {@link #measure}). {@link RequestDbStatsListener} feeds the stats bound to the
+ * calling thread; work handed to other threads must be wrapped with {@link #propagate} to count.
+ * Reply bytes are only measured when the scope asks for them, since that re-encodes every reply.
+ *
+ * <pre>
+ * RequestDbStats stats = RequestDbStats.measure(() -> orderService.getUserOrders(userId));
+ * stats.assertRoundTripsAtMost(2);
+ * </pre>
+ */
+public class RequestDbStats {
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_RECORDED_COMMANDS = 100;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<String> commands = new ArrayList<>();
+    private final boolean measuringBytes;
+
+    private RequestDbStats(boolean measuringBytes) {
+        this.measuringBytes = measuringBytes;
+    }
+
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    /** Binds fresh stats to this thread until the returned scope is closed. */
+    public static Scope open(boolean measureBytes) {
+        RequestDbStats stats = new RequestDbStats(measureBytes);
+        return new Scope(stats, bind(stats));
+    }
+
+    /** Runs {@code work} on this thread and returns the Mongo activity it caused, bytes included. */
+    public static RequestDbStats measure(Runnable work) {
+        try (Scope scope = open(true)) {
+            work.run();
+            return scope.stats();
+        }
+    }
+
+    /** Counts work run on another thread against the stats of the thread that creates the task. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestDbStats stats = current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestDbStats previous = bind(stats);
+            try {
+                return task.get();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    private static RequestDbStats bind(RequestDbStats stats) {
+        RequestDbStats previous = CURRENT.get();
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+        return previous;
+    }
+
+    void commandStarted(String commandName, String collection) {
+        roundTrips.incrementAndGet();
+        synchronized (commands) {
+            if (commands.size() < MAX_RECORDED_COMMANDS) {
+                commands.add(collection != null ? commandName + " " + collection : commandName);
+            }
+        }
+    }
+
+    void replyReceived(long documentCount, long byteCount) {
+        documents.addAndGet(documentCount);
+        bytes.addAndGet(byteCount);
+    }
+
+    public boolean isMeasuringBytes() {
+        return measuringBytes;
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public long getDocuments() {
+        return documents.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /** The first {@value #MAX_RECORDED_COMMANDS} commands, e.g. {@code "find users"}. */
+    public List<String> getCommands() {
+        synchronized (commands) {
+            return List.copyOf(commands);
+        }
+    }
+
+    public RequestDbStats assertRoundTripsAtMost(long expected) {
+        if (getRoundTrips() > expected) {
+            throw new AssertionError("Expected at most " + expected + " Mongo round trips but was " + getRoundTrips()
+                    + ": " + getCommands());
+        }
+        return this;
+    }
+
+    public RequestDbStats assertDocumentsAtMost(long expected) {
+        if (getDocuments() > expected) {
+            throw new AssertionError("Expected at most " + expected + " documents read but was " + getDocuments()
+                    + ": " + getCommands());
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return getRoundTrips() + " round trips, " + getDocuments() + " documents"
+                + (measuringBytes ? ", " + getBytes() + " bytes" : "");
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final RequestDbStats stats;
+        private final RequestDbStats previous;
+
+        private Scope(RequestDbStats stats, RequestDbStats previous) {
+            this.stats = stats;
+            this.previous = previous;
+        }
+
+        public RequestDbStats stats() {
+            return stats;
+        }
+
+        @Override
+        public void close() {
+            bind(previous);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link RequestDbStats} scope per request and records it as
+ * {@code mongodb.request.round.trips}, {@code mongodb.request.documents} and
+ * {@code mongodb.request.bytes}, tagged with the handler's URI pattern. Bytes are only measured
+ * (and recorded) while {@code mongo.request-stats.header} is on.
+ */
+@Component
+public class RequestDbStatsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final boolean measureBytes;
+
+    public RequestDbStatsFilter(MeterRegistry meterRegistry,
+            @Value("${mongo.request-stats.header:false}") boolean measureBytes) {
+        this.meterRegistry = meterRegistry;
+        this.measureBytes = measureBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (RequestDbStats.Scope scope = RequestDbStats.open(measureBytes)) {
+            chain.doFilter(request, response);
+            record(request, scope.stats());
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestDbStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return; // not routed to a controller (static resources, 404s)
+        }
+        String uri = pattern.toString();
+        summary("mongodb.request.round.trips", "Mongo commands issued per request", null, uri, request)
+                .record(stats.getRoundTrips());
+        summary("mongodb.request.documents", "Documents returned by Mongo per request", null, uri, request)
+                .record(stats.getDocuments());
+        if (stats.isMeasuringBytes()) {
+            summary("mongodb.request.bytes", "Mongo reply bytes per request", "bytes", uri, request)
+                    .record(stats.getBytes());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, String uri, HttpServletRequest request) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
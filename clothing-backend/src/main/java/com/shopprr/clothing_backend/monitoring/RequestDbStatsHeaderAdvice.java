@@ -0,0 +1,44 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code X-Db-Round-Trips}, {@code X-Db-Documents} and {@code X-Db-Bytes} to controller responses
+ * when {@code mongo.request-stats.header} is on. Runs just before the body is written, after the
+ * handler has done its database work.
+ */
+@ControllerAdvice
+public class RequestDbStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+    private final boolean enabled;
+
+    public RequestDbStatsHeaderAdvice(@Value("${mongo.request-stats.header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Db-Round-Trips", Long.toString(stats.getRoundTrips()));
+            response.getHeaders().set("X-Db-Documents", Long.toString(stats.getDocuments()));
+            if (stats.isMeasuringBytes()) {
+                response.getHeaders().set("X-Db-Bytes", Long.toString(stats.getBytes()));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,42 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Feeds {@link RequestDbStats}. The synchronous driver fires these events on the thread that issued
+ * the command, so the thread-local stats are the ones of the request that caused it. Commands
+ * outside a request (startup, schedulers) are not counted.
+ */
+@Component
+public class RequestDbStatsListener implements CommandListener {
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats == null) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue target = event.getCommandName().equals("getMore") ? command.get("collection") : command.get(event.getCommandName());
+        stats.commandStarted(event.getCommandName(), target != null && target.isString() ? target.asString().getValue() : null);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats == null) {
+            return;
+        }
+        BsonDocument response = event.getResponse();
+        Long documents = CommandReplies.docsReturned(event.getCommandName(), response);
+        boolean returnsDocuments = response.containsKey("cursor") || event.getCommandName().equals("findAndModify");
+        stats.replyReceived(returnsDocuments && documents != null ? documents : 0,
+                stats.isMeasuringBytes() ? CommandReplies.sizeInBytes(response) : 0);
+    }
+}
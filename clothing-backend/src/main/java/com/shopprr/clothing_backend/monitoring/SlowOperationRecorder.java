@@ -0,0 +1,273 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.shopprr.clothing_backend.dto.SlowOperation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs Mongo commands slower than {@code mongo.slow-query.threshold-ms} and keeps the latest ones
+ * in a bounded ring buffer (read through {@code GET /api/admin/slow-queries}). Slow read shapes are
+ * re-run as {@code explain} on a background thread, at most once per shape per sample interval,
+ * to add docs/keys examined and the winning plan. Writes are only recorded by command, collection
+ * and number of statements.
+ */
+@Slf4j
+@Component
+public class SlowOperationRecorder implements CommandListener {
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+    private static final Set<String> IGNORED = Set.of("hello", "isMaster", "ping", "buildInfo", "saslStart",
+            "saslContinue", "endSessions", "explain", "killCursors");
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().build();
+    private static final String APP_PACKAGE = "com.shopprr.clothing_backend.";
+    private static final int MAX_RETAINED_BYTES = 16 * 1024;
+
+    // command is null for writes and for reads too large to keep
+    private record InFlight(String database, String collection, BsonDocument command, int statements) {
+    }
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final boolean explainEnabled;
+    private final long explainIntervalMillis;
+
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowOperation> recent;
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowOperationRecorder(ObjectProvider<MongoClient> mongoClient,
+            @Value("${mongo.slow-query.threshold-ms:100}") long thresholdMs,
+            @Value("${mongo.slow-query.buffer-size:200}") int capacity,
+            @Value("${mongo.slow-query.explain:true}") boolean explainEnabled,
+            @Value("${mongo.slow-query.explain-interval-ms:300000}") long explainIntervalMillis) {
+        this.mongoClient = mongoClient;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.capacity = Math.max(1, capacity);
+        this.explainEnabled = explainEnabled;
+        this.explainIntervalMillis = explainIntervalMillis;
+        this.recent = new ArrayDeque<>(this.capacity);
+        // One explain at a time; when it falls behind, further samples are dropped rather than queued
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (IGNORED.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : null;
+        if (event.getCommandName().equals("getMore") && command.isString("collection")) {
+            collection = command.getString("collection").getValue();
+        }
+        // The event's document is backed by the connection buffer, which the driver releases as soon as this
+        // callback returns, so anything needed later must be copied now. Only reads, which can be explained,
+        // are copied, and only up to a size; writes would copy every payload, product images included
+        BsonDocument retained = EXPLAINABLE.contains(event.getCommandName())
+                ? CommandShapes.retain(command, MAX_RETAINED_BYTES) : null;
+        InFlight started = new InFlight(event.getDatabaseName(), collection, retained,
+                CommandShapes.statementCount(command));
+        inFlight.put(event.getRequestId(), started);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= thresholdNanos) {
+            record(started, event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), event.getResponse(), null);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= thresholdNanos) {
+            record(started, event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), null,
+                    event.getThrowable().getMessage());
+        }
+    }
+
+    public List<SlowOperation> getRecent() {
+        synchronized (recent) {
+            List<SlowOperation> copy = new ArrayList<>(recent);
+            Collections.reverse(copy);
+            return copy;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void record(InFlight started, String commandName, long durationMs, BsonDocument response, String error) {
+        BsonDocument shape = started.command() != null ? CommandShapes.shapeOf(started.command(), commandName)
+                : new BsonDocument(commandName, new BsonString(started.collection() != null ? started.collection() : "?"));
+        if (started.statements() > 0) {
+            shape.put("statements", new BsonString(Integer.toString(started.statements())));
+        }
+
+        SlowOperation operation = new SlowOperation();
+        operation.setTimestamp(Instant.now());
+        operation.setDatabase(started.database());
+        operation.setCollection(started.collection());
+        operation.setCommand(commandName);
+        operation.setDurationMs(durationMs);
+        operation.setShape(shape.toJson(JSON));
+        operation.setDocsReturned(response != null ? CommandReplies.docsReturned(commandName, response) : null);
+        // The synchronous driver reports completion on the calling thread, so the stack still shows the caller
+        operation.setCaller(caller());
+        operation.setError(error);
+
+        log.warn("Slow Mongo {} on {}.{} took {} ms (returned {}) from {}: {}", commandName, started.database(),
+                started.collection(), durationMs, operation.getDocsReturned(), operation.getCaller(), operation.getShape());
+
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(operation);
+        }
+
+        if (explainEnabled && error == null && started.command() != null && shouldSample(started, shape)) {
+            explainExecutor.execute(() -> explain(started, operation));
+        }
+    }
+
+    private boolean shouldSample(InFlight started, BsonDocument shape) {
+        String key = started.database() + '|' + shape.toJson(JSON);
+        long now = System.currentTimeMillis();
+        if (lastExplained.size() > 10_000) {
+            lastExplained.clear();
+        }
+        Long previous = lastExplained.get(key);
+        if (previous != null && now - previous < explainIntervalMillis) {
+            return false;
+        }
+        return (previous == null ? lastExplained.putIfAbsent(key, now) == null : lastExplained.replace(key, previous, now));
+    }
+
+    private void explain(InFlight started, SlowOperation operation) {
+        MongoClient client = mongoClient.getIfAvailable();
+        if (client == null) {
+            return;
+        }
+        try {
+            BsonDocument explain = new BsonDocument("explain", started.command())
+                    .append("verbosity", new BsonString("executionStats"));
+            BsonDocument result = client.getDatabase(started.database()).runCommand(explain, BsonDocument.class);
+
+            findDocument(result, "executionStats").ifPresent(stats -> {
+                operation.setDocsExamined(CommandReplies.longValue(stats.get("totalDocsExamined")));
+                operation.setKeysExamined(CommandReplies.longValue(stats.get("totalKeysExamined")));
+            });
+            findDocument(result, "winningPlan").ifPresent(plan -> operation.setPlan(planSummary(plan)));
+            operation.setExplain(CommandShapes.redactExplain(result).toJson(JSON));
+            log.warn("Explain for slow {} on {}.{}: plan {}, examined {} docs / {} keys", operation.getCommand(),
+                    operation.getDatabase(), operation.getCollection(), operation.getPlan(),
+                    operation.getDocsExamined(), operation.getKeysExamined());
+        } catch (Exception e) {
+            log.debug("Explain failed for {} on {}.{}: {}", operation.getCommand(), operation.getDatabase(),
+                    operation.getCollection(), e.getMessage());
+        }
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> {
+            String repositoryMethod = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (repositoryMethod == null && className.contains("$Proxy")) {
+                    repositoryMethod = frame.getMethodName();
+                } else if (className.startsWith(APP_PACKAGE) && !className.startsWith(APP_PACKAGE + "monitoring.")) {
+                    String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                    String location = simpleName + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+                    return repositoryMethod != null ? location + " -> " + repositoryMethod : location;
+                }
+            }
+            return repositoryMethod;
+        });
+    }
+
+    private static Optional<BsonDocument> findDocument(BsonDocument document, String key) {
+        if (document.isDocument(key)) {
+            return Optional.of(document.getDocument(key));
+        }
+        for (BsonValue value : document.values()) {
+            Optional<BsonDocument> found = Optional.empty();
+            if (value.isDocument()) {
+                found = findDocument(value.asDocument(), key);
+            } else if (value.isArray()) {
+                for (BsonValue element : value.asArray()) {
+                    if (element.isDocument() && (found = findDocument(element.asDocument(), key)).isPresent()) {
+                        break;
+                    }
+                }
+            }
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // e.g. "FETCH <- IXSCAN(productId_1_createdAt_-1)"
+    private static String planSummary(BsonDocument plan) {
+        if (plan.isDocument("queryPlan")) {
+            plan = plan.getDocument("queryPlan");
+        }
+        StringBuilder summary = new StringBuilder(plan.getString("stage", new BsonString("?")).getValue());
+        if (plan.isString("indexName")) {
+            summary.append('(').append(plan.getString("indexName").getValue()).append(')');
+        }
+        if (plan.isDocument("inputStage")) {
+            summary.append(" <- ").append(planSummary(plan.getDocument("inputStage")));
+        } else if (plan.isArray("inputStages")) {
+            BsonArray inputs = plan.getArray("inputStages");
+            List<String> parts = new ArrayList<>();
+            for (BsonValue input : inputs) {
+                if (input.isDocument()) {
+                    parts.add(planSummary(input.asDocument()));
+                }
+            }
+            summary.append(" <- [").append(String.join(", ", parts)).append(']');
+        }
+        return summary.toString();
+    }
+}
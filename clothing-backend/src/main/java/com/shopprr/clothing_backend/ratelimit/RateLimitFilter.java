@@ -0,0 +1,160 @@
+package com.shopprr.clothing_backend.ratelimit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopprr.clothing_backend.dto.ApiResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers 429 to clients that exceed the request rate of the expensive endpoints (BCrypt logins and
+ * registration, review creation, product uploads) before the request body is read or any hashing or
+ * database work starts. Each client gets a {@link TokenBucket} per endpoint keyed by IP address, and
+ * for signed-in endpoints also by user; a request only takes tokens when every one of its buckets
+ * has one, so requests refused by the user bucket do not drain the IP bucket. The IP is
+ * {@code getRemoteAddr()}, which behind a proxy is only the client's once
+ * {@code server.forward-headers-strategy} is set (see application.properties). Buckets that have
+ * refilled are dropped every minute and the number of buckets is capped, so memory stays bounded
+ * under a flood of distinct clients.
+ * Decisions are counted as {@code ratelimit.requests{rule,outcome}}.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_BUCKETS = 100_000;
+
+    private record Rule(String name, String path, boolean perUser, int capacity, int perMinute) {
+    }
+
+    // Defaults; each can be overridden with rate-limit.<name>.capacity / .per-minute
+    private static final List<Rule> DEFAULT_RULES = List.of(
+            new Rule("user-login", "/api/user/login", false, 10, 10),
+            new Rule("admin-login", "/api/admin/login", false, 5, 5),
+            new Rule("register", "/api/user/register", false, 5, 3),
+            new Rule("review-create", "/api/review/create", true, 5, 10),
+            new Rule("product-add", "/api/product/add", true, 10, 30));
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<String, Rule> rules;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> allowed = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment environment,
+            @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.rules = DEFAULT_RULES.stream()
+                .map(rule -> new Rule(rule.name(), rule.path(), rule.perUser(),
+                        environment.getProperty("rate-limit." + rule.name() + ".capacity", Integer.class, rule.capacity()),
+                        environment.getProperty("rate-limit." + rule.name() + ".per-minute", Integer.class, rule.perMinute())))
+                .collect(Collectors.toMap(Rule::path, Function.identity()));
+        for (Rule rule : rules.values()) {
+            allowed.put(rule.name(), counter(meterRegistry, rule, "allowed"));
+            rejected.put(rule.name(), counter(meterRegistry, rule, "rejected"));
+        }
+        meterRegistry.gaugeMapSize("ratelimit.buckets", Tags.empty(), buckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !rules.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Rule rule = rules.get(path(request));
+        long now = System.nanoTime();
+        List<TokenBucket> clientBuckets = clients(rule, request).stream().map(client -> bucket(rule, client, now)).toList();
+        long waitNanos = 0;
+        for (TokenBucket bucket : clientBuckets) {
+            waitNanos = Math.max(waitNanos, bucket.waitNanos(now));
+        }
+        // Another request may take the last token in between; then this one is refused after all
+        for (int i = 0; i < clientBuckets.size() && waitNanos == 0; i++) {
+            waitNanos = clientBuckets.get(i).tryAcquire(now);
+        }
+
+        if (waitNanos == 0) {
+            allowed.get(rule.name()).increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.get(rule.name()).increment();
+        log.debug("Rate limited {} for {}", rule.path(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse(false, "Too many requests, please try again later"));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void dropFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // The address always counts, so made-up session cookies cannot dodge the limit
+    private static List<String> clients(Rule rule, HttpServletRequest request) {
+        List<String> clients = new ArrayList<>(2);
+        clients.add("ip:" + request.getRemoteAddr());
+        Cookie session = WebUtils.getCookie(request, "user_session");
+        if (rule.perUser() && session != null && session.getValue() != null && !session.getValue().isEmpty()) {
+            clients.add("user:" + session.getValue());
+        }
+        return clients;
+    }
+
+    private TokenBucket bucket(Rule rule, String client, long now) {
+        String key = rule.name() + "|" + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_BUCKETS) {
+            // Too many distinct clients at once: the rest share one bucket per rule
+            key = rule.name() + "|*";
+        }
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, rule.perMinute());
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(Math.max(1, rule.capacity()), intervalNanos, now));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Rule rule, String outcome) {
+        return Counter.builder("ratelimit.requests")
+                .description("Requests to rate-limited endpoints")
+                .tag("rule", rule.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
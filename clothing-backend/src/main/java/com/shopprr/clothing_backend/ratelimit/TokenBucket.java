@@ -0,0 +1,47 @@
+package com.shopprr.clothing_backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single number: the time at which it will be full again. Taking a token
+ * moves that time one refill interval later; a request is refused when it would move it more than
+ * {@code capacity} intervals past now. Updates are a compare-and-set loop, so concurrent requests
+ * never block each other. Times are {@link System#nanoTime()} values.
+ */
+final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, long intervalNanos, long now) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /** @return 0 if a token is available now, otherwise the nanoseconds until one will be; takes nothing */
+    long waitNanos(long now) {
+        long ahead = Math.max(fullAt.get(), now) + intervalNanos - now;
+        return Math.max(0, ahead - toleranceNanos);
+    }
+
+    /** @return 0 if a token was taken, otherwise the nanoseconds until one will be available */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be dropped
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -1,15 +1,10 @@
 package com.shopprr.clothing_backend.repository;
 
-import java.util.List;
-import java.util.Optional;
-
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import com.shopprr.clothing_backend.model.Category;
 
 @Repository
-public interface CategoryRepository extends MongoRepository<Category, String> {
-    List<Category> findByIsActiveTrue();
-    Optional<Category> findBySlug(String slug);
+public interface CategoryRepository extends MongoRepository<Category, String>, CategoryRepositoryCustom {
 }
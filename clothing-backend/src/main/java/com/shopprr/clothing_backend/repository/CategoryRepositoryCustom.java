@@ -0,0 +1,13 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.shopprr.clothing_backend.model.Category;
+
+// Storefront reads, which may be served by a secondary (see CatalogReadRouting); findAll replaces the primary-only default
+public interface CategoryRepositoryCustom {
+    List<Category> findAll();
+    List<Category> findByIsActiveTrue();
+    Optional<Category> findBySlug(String slug);
+}
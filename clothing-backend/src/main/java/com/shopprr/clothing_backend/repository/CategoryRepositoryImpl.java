@@ -0,0 +1,34 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.shopprr.clothing_backend.model.Category;
+import com.shopprr.clothing_backend.service.CatalogReadRouting;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final CatalogReadRouting catalogReads;
+
+    @Override
+    public List<Category> findAll() {
+        return mongoTemplate.find(catalogReads.catalog(new Query()), Category.class);
+    }
+
+    @Override
+    public List<Category> findByIsActiveTrue() {
+        return mongoTemplate.find(catalogReads.catalog(Query.query(Criteria.where("isActive").is(true))), Category.class);
+    }
+
+    @Override
+    public Optional<Category> findBySlug(String slug) {
+        return Optional.ofNullable(mongoTemplate.findOne(catalogReads.catalog(Query.query(Criteria.where("slug").is(slug))), Category.class));
+    }
+}
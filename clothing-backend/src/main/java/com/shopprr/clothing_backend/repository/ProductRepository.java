@@ -1,14 +1,10 @@
 package com.shopprr.clothing_backend.repository;
 
-import java.util.List;
-
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import com.shopprr.clothing_backend.model.Product;
 
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
-    List<Product> findByCategory(String category);
-    List<Product> findByPopularTrue();
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
 }
@@ -0,0 +1,14 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.shopprr.clothing_backend.model.Product;
+
+// Storefront reads, which may be served by a secondary (see CatalogReadRouting); findAll replaces the primary-only default
+public interface ProductRepositoryCustom {
+    List<Product> findAll();
+    Optional<Product> findCatalogProduct(String id);
+    List<Product> findByCategory(String category);
+    List<Product> findByPopularTrue();
+}
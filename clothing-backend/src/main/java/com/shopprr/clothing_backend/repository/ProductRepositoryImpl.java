@@ -0,0 +1,39 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.service.CatalogReadRouting;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final CatalogReadRouting catalogReads;
+
+    @Override
+    public List<Product> findAll() {
+        return mongoTemplate.find(catalogReads.catalog(new Query()), Product.class);
+    }
+
+    @Override
+    public Optional<Product> findCatalogProduct(String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(catalogReads.catalog(Query.query(Criteria.where("_id").is(id))), Product.class));
+    }
+
+    @Override
+    public List<Product> findByCategory(String category) {
+        return mongoTemplate.find(catalogReads.catalog(Query.query(Criteria.where("category").is(category))), Product.class);
+    }
+
+    @Override
+    public List<Product> findByPopularTrue() {
+        return mongoTemplate.find(catalogReads.catalog(Query.query(Criteria.where("popular").is(true))), Product.class);
+    }
+}
@@ -6,8 +6,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.shopprr.clothing_backend.model.Review;
 
-public interface ReviewRepository extends MongoRepository<Review, String> {
-    List<Review> findByProductId(String productId);
+public interface ReviewRepository extends MongoRepository<Review, String>, ReviewRepositoryCustom {
     List<Review> findByUserId(String userId);
-    List<Review> findByProductIdOrderByCreatedAtDesc(String productId);
 }
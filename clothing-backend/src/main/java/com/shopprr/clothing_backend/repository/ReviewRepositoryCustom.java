@@ -0,0 +1,23 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+
+import com.shopprr.clothing_backend.model.Review;
+
+// Product review reads, which may be served by a secondary (see CatalogReadRouting)
+public interface ReviewRepositoryCustom {
+    enum FeedOrder {
+        NEWEST,
+        HELPFUL // most helpful first, newest first among ties
+    }
+
+    /**
+     * One page of a product's reviews in {@code order}, optionally for a single rating. {@code after}
+     * is the last review of the previous page (only its sort keys are used), or null for the first page.
+     */
+    List<Review> findFeedPage(String productId, Integer rating, FeedOrder order, Review after, int limit);
+
+    List<Review> findByProductId(String productId);
+
+    List<Review> findByProductIdOrderByCreatedAtDesc(String productId);
+}
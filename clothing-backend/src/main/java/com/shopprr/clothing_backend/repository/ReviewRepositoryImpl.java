@@ -0,0 +1,62 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.service.CatalogReadRouting;
+
+import lombok.RequiredArgsConstructor;
+
+// Keyset pagination: each page seeks past the previous page's last (sort key, createdAt, _id) instead of skipping
+@RequiredArgsConstructor
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final CatalogReadRouting catalogReads;
+
+    @Override
+    public List<Review> findFeedPage(String productId, Integer rating, FeedOrder order, Review after, int limit) {
+        Query query = Query.query(Criteria.where("productId").is(productId));
+        if (rating != null) {
+            query.addCriteria(Criteria.where("rating").is(rating));
+        }
+        if (after != null) {
+            query.addCriteria(after(order, after));
+        }
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+        if (order == FeedOrder.HELPFUL) {
+            sort = Sort.by(Sort.Direction.DESC, "helpfulCount").and(sort);
+        }
+        query.with(sort).limit(limit);
+        return mongoTemplate.find(catalogReads.reviews(query, productId), Review.class);
+    }
+
+    @Override
+    public List<Review> findByProductId(String productId) {
+        Query query = Query.query(Criteria.where("productId").is(productId));
+        return mongoTemplate.find(catalogReads.reviews(query, productId), Review.class);
+    }
+
+    @Override
+    public List<Review> findByProductIdOrderByCreatedAtDesc(String productId) {
+        Query query = Query.query(Criteria.where("productId").is(productId)).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        return mongoTemplate.find(catalogReads.reviews(query, productId), Review.class);
+    }
+
+    private Criteria after(FeedOrder order, Review last) {
+        Criteria olderThanLast = new Criteria().orOperator(
+                Criteria.where("createdAt").lt(last.getCreatedAt()),
+                Criteria.where("createdAt").is(last.getCreatedAt()).and("_id").lt(last.getId()));
+        if (order != FeedOrder.HELPFUL) {
+            return olderThanLast;
+        }
+        return new Criteria().orOperator(
+                Criteria.where("helpfulCount").lt(last.getHelpfulCount()),
+                new Criteria().andOperator(Criteria.where("helpfulCount").is(last.getHelpfulCount()), olderThanLast));
+    }
+}
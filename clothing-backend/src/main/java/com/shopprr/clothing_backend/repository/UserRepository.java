@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import com.shopprr.clothing_backend.model.User;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
@@ -0,0 +1,20 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+
+import com.shopprr.clothing_backend.model.User;
+
+public interface UserRepositoryCustom {
+    enum ListOrder {
+        NAME,
+        EMAIL,
+        SPEND // highest lifetime spend first
+    }
+
+    /**
+     * One page of users in {@code order}, optionally limited to those whose name (case-insensitive)
+     * or email, whichever {@code order} sorts by, starts with {@code prefix}. {@code after} is the last user of the previous page (only
+     * its sort keys are used), or null for the first page. Only {@code fields} and the id are read.
+     */
+    List<User> findListPage(ListOrder order, String prefix, User after, int limit, String... fields);
+}
@@ -0,0 +1,52 @@
+package com.shopprr.clothing_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.shopprr.clothing_backend.model.User;
+
+import lombok.RequiredArgsConstructor;
+
+// Keyset pagination over the name_key / email_id / lifetime_spend indexes; an anchored prefix regex becomes an index range
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<User> findListPage(ListOrder order, String prefix, User after, int limit, String... fields) {
+        String key = switch (order) {
+            case EMAIL -> "email";
+            case SPEND -> "orderStats.lifetimeSpend";
+            default -> "nameKey";
+        };
+        Query query = new Query();
+        if (prefix != null && !prefix.isEmpty() && order != ListOrder.SPEND) {
+            String value = order == ListOrder.EMAIL ? prefix : User.nameKey(prefix);
+            query.addCriteria(Criteria.where(key).regex("^" + escape(value)));
+        }
+        if (after != null) {
+            Object last = switch (order) {
+                case EMAIL -> after.getEmail();
+                case SPEND -> after.getOrderStats().getLifetimeSpend();
+                default -> after.getNameKey();
+            };
+            Criteria past = order == ListOrder.SPEND ? Criteria.where(key).lt(last) : Criteria.where(key).gt(last);
+            query.addCriteria(new Criteria().orOperator(
+                    past,
+                    Criteria.where(key).is(last).and("_id").gt(after.getId())));
+        }
+        Sort.Direction direction = order == ListOrder.SPEND ? Sort.Direction.DESC : Sort.Direction.ASC;
+        query.with(Sort.by(direction, key).and(Sort.by(Sort.Direction.ASC, "_id"))).limit(limit);
+        query.fields().include(fields).include(key);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    // Backslash-escaped metacharacters keep the prefix literal for the planner; \Q...\E would not
+    private static String escape(String value) {
+        return value.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0");
+    }
+}
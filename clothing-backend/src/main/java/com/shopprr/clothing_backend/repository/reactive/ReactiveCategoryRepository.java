@@ -0,0 +1,13 @@
+package com.shopprr.clothing_backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.shopprr.clothing_backend.model.Category;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String> {
+    Flux<Category> findByIsActiveTrue();
+}
@@ -0,0 +1,14 @@
+package com.shopprr.clothing_backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.shopprr.clothing_backend.model.Product;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+    Flux<Product> findByCategory(String category);
+    Flux<Product> findByPopularTrue();
+}
@@ -0,0 +1,11 @@
+package com.shopprr.clothing_backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.shopprr.clothing_backend.model.Review;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveReviewRepository extends ReactiveMongoRepository<Review, String> {
+    Flux<Review> findByProductIdOrderByCreatedAtDesc(String productId);
+}
@@ -0,0 +1,176 @@
+package com.shopprr.clothing_backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.shopprr.clothing_backend.dto.CartQuote;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Prices carts on the server. A quote is cached per user and stays valid while the user's version
+ * (bumped by every cart change) and the {@link CatalogVersions} tag of each quoted product are
+ * unchanged and no discount window of those products opens or closes; checkout uses a valid quote
+ * instead of reading the products again. Lookups are reported as {@code cache.gets{cache=cartQuotes}}.
+ */
+@Service
+public class CartQuoteService {
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+    private static final int MAX_ENTRIES = 10000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersions catalogVersions;
+    private final Map<String, CartQuote> quotes = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CartQuoteService(MongoTemplate mongoTemplate, CatalogVersions catalogVersions, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersions = catalogVersions;
+        this.hits = Counter.builder("cache.gets").tag("cache", "cartQuotes").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "cartQuotes").tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("cache.size", Tags.of("cache", "cartQuotes"), quotes);
+    }
+
+    public CartQuote getQuote(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("cartData").include("version");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+
+        CartQuote cached = validQuote(userId, user.getVersion());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CartQuote quote = price(user.getVersion(), user.getCartData());
+        if (quotes.size() >= MAX_ENTRIES) {
+            quotes.clear();
+        }
+        quotes.put(userId, quote);
+        return quote;
+    }
+
+    // The cached quote if it was made for this cart version and is still current, otherwise null
+    public CartQuote validQuote(String userId, Long cartVersion) {
+        CartQuote quote = quotes.get(userId);
+        if (quote == null || !Objects.equals(quote.getCartVersion(), cartVersion)
+                || !LocalDateTime.now().isBefore(quote.getValidUntil())) {
+            return null;
+        }
+        for (Map.Entry<String, Long> product : quote.getProductVersions().entrySet()) {
+            if (catalogVersions.productVersion(product.getKey()) != product.getValue()) {
+                return null;
+            }
+        }
+        return quote;
+    }
+
+    // Only the fields pricing needs, in one $in query
+    public Map<String, Product> findForPricing(Collection<String> productIds) {
+        Query query = Query.query(Criteria.where("_id").in(productIds));
+        query.fields().include("name", "price", "offerPrice", "inStock", "hasDiscount", "discountStartDate", "discountEndDate");
+        return mongoTemplate.find(query, Product.class).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    // offerPrice carries the discount; outside a product's discount window the list price applies
+    public static double unitPrice(Product product, LocalDateTime now) {
+        if (product.getOfferPrice() == null
+                || (Boolean.TRUE.equals(product.getHasDiscount()) && !discountActive(product, now))) {
+            return product.getPrice();
+        }
+        return product.getOfferPrice();
+    }
+
+    private static boolean discountActive(Product product, LocalDateTime now) {
+        return (product.getDiscountStartDate() == null || !now.isBefore(product.getDiscountStartDate()))
+                && (product.getDiscountEndDate() == null || !now.isAfter(product.getDiscountEndDate()));
+    }
+
+    private CartQuote price(Long cartVersion, Map<String, Map<String, Integer>> cartData) {
+        LocalDateTime now = LocalDateTime.now();
+        CartQuote quote = new CartQuote();
+        quote.setCartVersion(cartVersion);
+        quote.setQuotedAt(now);
+        LocalDateTime validUntil = now.plus(MAX_AGE);
+        if (cartData == null) {
+            cartData = Map.of();
+        }
+
+        // Versions are read before the products so a change during the read invalidates the quote
+        Map<String, Long> versions = new HashMap<>();
+        cartData.keySet().forEach(id -> versions.put(id, catalogVersions.productVersion(id)));
+        quote.setProductVersions(versions);
+        Map<String, Product> products = cartData.isEmpty() ? Map.of() : findForPricing(cartData.keySet());
+
+        double subtotal = 0.0;
+        int itemCount = 0;
+        boolean ready = true;
+        for (Map.Entry<String, Map<String, Integer>> item : cartData.entrySet()) {
+            Product product = products.get(item.getKey());
+            for (Map.Entry<String, Integer> size : item.getValue().entrySet()) {
+                int quantity = size.getValue();
+                if (product == null) {
+                    quote.getLines().add(new CartQuote.Line(item.getKey(), null, size.getKey(), quantity, null, 0.0, CartQuote.NOT_FOUND));
+                    ready = false;
+                    continue;
+                }
+                double unitPrice = unitPrice(product, now);
+                boolean inStock = !Boolean.FALSE.equals(product.getInStock());
+                quote.getLines().add(new CartQuote.Line(product.getId(), product.getName(), size.getKey(), quantity,
+                        unitPrice, unitPrice * quantity, inStock ? null : CartQuote.OUT_OF_STOCK));
+                if (inStock) {
+                    subtotal += unitPrice * quantity;
+                    itemCount += quantity;
+                } else {
+                    ready = false;
+                }
+            }
+            if (product != null && Boolean.TRUE.equals(product.getHasDiscount())) {
+                validUntil = earlier(validUntil, nextWindowChange(product, now));
+            }
+        }
+
+        quote.setSubtotal(subtotal);
+        quote.setItemCount(itemCount);
+        quote.setCheckoutReady(ready && !quote.getLines().isEmpty());
+        quote.setValidUntil(validUntil);
+        return quote;
+    }
+
+    private static LocalDateTime nextWindowChange(Product product, LocalDateTime now) {
+        if (product.getDiscountStartDate() != null && now.isBefore(product.getDiscountStartDate())) {
+            return product.getDiscountStartDate();
+        }
+        if (product.getDiscountEndDate() != null && !now.isAfter(product.getDiscountEndDate())) {
+            return product.getDiscountEndDate();
+        }
+        return null;
+    }
+
+    private static LocalDateTime earlier(LocalDateTime current, LocalDateTime candidate) {
+        return candidate != null && candidate.isBefore(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,180 @@
+package com.shopprr.clothing_backend.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.shopprr.clothing_backend.model.Category;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.Review;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Follows a change stream on products, categories and reviews and bumps the matching
+ * {@link CatalogVersions}, so every cache and ETag keyed on them (catalog responses, product
+ * summaries, cart quotes) also moves when another node does the write. Writes made by this node are
+ * seen twice, which only costs one extra cache miss.
+ * <p>
+ * The stream resumes from the last resume token after a dropped connection or failover, so no
+ * change is missed while the process runs. A restarted process starts with empty caches and needs
+ * no history; when the server no longer has the history a resume needs, everything is invalidated
+ * instead. Change streams need a replica set (a single-node one is enough); on a standalone server
+ * the listener logs a warning and stays off.
+ */
+@Slf4j
+@Component
+public class CatalogChangeListener {
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersions catalogVersions;
+    private final boolean enabled;
+    private final String products;
+    private final String categories;
+    private final String reviews;
+    private volatile boolean running;
+    private Thread thread;
+    private BsonDocument resumeToken;
+
+    public CatalogChangeListener(MongoTemplate mongoTemplate, CatalogVersions catalogVersions,
+            @Value("${catalog.change-stream.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersions = catalogVersions;
+        this.enabled = enabled;
+        this.products = mongoTemplate.getCollectionName(Product.class);
+        this.categories = mongoTemplate.getCollectionName(Category.class);
+        this.reviews = mongoTemplate.getCollectionName(Review.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "catalog-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open().cursor()) {
+                log.info("Following catalog changes{}", resumeToken != null ? " from the last resume token" : "");
+                backoffMs = 1000;
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        apply(change);
+                    }
+                    // Also advances on empty batches, so a later resume skips idle history
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                    if (change != null && change.getOperationType() == OperationType.INVALIDATE) {
+                        resumeToken = null; // an invalidated stream cannot be resumed
+                        break;
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    log.warn("Change streams need a replica set; other nodes' catalog writes will not invalidate caches here");
+                    return;
+                }
+                backoffMs = retry(e, backoffMs);
+            } catch (MongoException e) {
+                backoffMs = retry(e, backoffMs);
+            }
+        }
+    }
+
+    private ChangeStreamIterable<Document> open() {
+        // Only the fields needed to pick what to invalidate; fullDocument is looked up for a review's productId
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.in("ns.coll", products, categories, reviews)),
+                Aggregates.project(Projections.include("operationType", "ns", "documentKey", "fullDocument.productId")));
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        return resumeToken != null ? stream.resumeAfter(resumeToken) : stream;
+    }
+
+    private long retry(MongoException e, long backoffMs) {
+        if (!running) {
+            return backoffMs;
+        }
+        if (e.getCode() == HISTORY_LOST) {
+            log.warn("Catalog change stream history lost; invalidating all catalog caches");
+            resumeToken = null;
+            invalidateAll();
+        } else {
+            log.warn("Catalog change stream failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+        }
+        try {
+            Thread.sleep(backoffMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+    }
+
+    void apply(ChangeStreamDocument<Document> change) {
+        String collection = change.getNamespace() != null ? change.getNamespace().getCollectionName() : null;
+        BsonValue id = change.getDocumentKey() != null ? change.getDocumentKey().get("_id") : null;
+        if (collection == null || id == null) {
+            // Drops, renames and invalidations are not about one document
+            invalidateAll();
+        } else if (collection.equals(products)) {
+            catalogVersions.productChanged(id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue());
+        } else if (collection.equals(categories)) {
+            catalogVersions.categoriesChanged();
+        } else if (collection.equals(reviews)) {
+            // Deleted reviews come without their document, so any product's reviews may have changed
+            String productId = change.getFullDocument() != null ? change.getFullDocument().getString("productId") : null;
+            if (productId != null) {
+                catalogVersions.reviewsChanged(productId);
+            } else {
+                catalogVersions.allReviewsChanged();
+            }
+        }
+    }
+
+    private void invalidateAll() {
+        catalogVersions.catalogChanged();
+        catalogVersions.categoriesChanged();
+        catalogVersions.allReviewsChanged();
+    }
+}
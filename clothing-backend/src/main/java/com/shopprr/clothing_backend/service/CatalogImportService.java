@@ -0,0 +1,253 @@
+package com.shopprr.clothing_backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.shopprr.clothing_backend.dto.ImportReport;
+import com.shopprr.clothing_backend.model.Product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk-loads products shaped like {@code mongodb_collections/products.json}. Accepts either a
+ * top-level JSON array or NDJSON, reads one record at a time with Jackson's streaming parser and
+ * writes them in unordered bulk batches, so memory is bounded by the batch size, not the file size.
+ * Records without an {@code _id} are inserted. Records with one are upserted field by field: only the
+ * fields present in the record are set, fields missing from it are kept, and defaults such as
+ * {@code createdAt} only apply when the product is new. A record with an {@code _id} that lacks the
+ * name, category or price only updates an existing product and is counted as not found otherwise.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+
+    public ImportReport importProducts(InputStream in, int batchSize) throws IOException {
+        int size = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(size);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+
+            long record = 0;
+            try {
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    record++;
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        report.addError(record, null, "Expected a JSON object", MAX_REPORTED_ERRORS);
+                    } else {
+                        JsonNode node = parser.readValueAsTree();
+                        addRecord(node, record, batch, report);
+                        if (batch.isFull()) {
+                            flush(batch, report);
+                        }
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // The stream cannot be resynchronised after a syntax error; keep what was already parsed
+                report.addError(record, null, "Malformed JSON, import stopped: " + e.getOriginalMessage(), MAX_REPORTED_ERRORS);
+            }
+            report.setRecords(record);
+        }
+
+        flush(batch, report);
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Catalog import finished: {} records, {} inserted, {} updated, {} not found, {} failed in {} ms",
+                report.getRecords(), report.getInserted(), report.getUpdated(), report.getNotFound(), report.getFailed(),
+                report.getDurationMs());
+        return report;
+    }
+
+    private void addRecord(JsonNode node, long record, Batch batch, ImportReport report) {
+        String id = null;
+        try {
+            // Document.parse understands the extended JSON ($oid, $date) used by the fixture files
+            Document source = Document.parse(objectMapper.writeValueAsString(node));
+            MongoConverter converter = mongoTemplate.getConverter();
+            // Validated on a converted copy, so values the mapping cannot read are rejected here
+            Product product = converter.read(Product.class, source);
+            id = product.getId();
+
+            String problem = validate(product, source);
+            if (problem != null) {
+                report.addError(record, id, problem, MAX_REPORTED_ERRORS);
+                return;
+            }
+            if (product.getOfferPrice() == null) {
+                product.setOfferPrice(product.getPrice());
+            }
+
+            Document converted = new Document();
+            converter.write(product, converted);
+            if (id == null) {
+                converted.put("version", 0L);
+                batch.add(converted, null, false, record, null);
+            } else {
+                batch.add(converted, upsert(source, converted), isComplete(source), record, id);
+            }
+        } catch (Exception e) {
+            report.addError(record, id, "Invalid product: " + e.getMessage(), MAX_REPORTED_ERRORS);
+        }
+    }
+
+    // New products need every check; a record for an existing _id is only checked on the fields it has
+    static String validate(Product product, Document source) {
+        boolean partial = source.get("_id") != null;
+        if (checks(source, "name", partial) && (product.getName() == null || product.getName().isBlank())) {
+            return "Product name is required";
+        }
+        if (checks(source, "category", partial) && (product.getCategory() == null || product.getCategory().isBlank())) {
+            return "Category is required";
+        }
+        if (checks(source, "price", partial) && (product.getPrice() == null || product.getPrice() < 0)) {
+            return "Price must be a non-negative number";
+        }
+        if (product.getOfferPrice() != null && product.getOfferPrice() < 0) {
+            return "Offer price must be a non-negative number";
+        }
+        return null;
+    }
+
+    private static boolean checks(Document source, String field, boolean partial) {
+        return !partial || source.containsKey(field);
+    }
+
+    // Enough to create the product if the _id is new
+    static boolean isComplete(Document source) {
+        return source.containsKey("name") && source.containsKey("category") && source.containsKey("price");
+    }
+
+    /**
+     * $set for the fields present in the record and $setOnInsert for the mapped defaults of the rest,
+     * so re-importing a partial record leaves images, discounts and the creation date alone. The
+     * version moves on ($inc, 1 for a new product) so open edits see a conflict.
+     */
+    static Update upsert(Document source, Document converted) {
+        Update update = new Update();
+        converted.forEach((field, value) -> {
+            if ("_id".equals(field) || "version".equals(field)) {
+                return;
+            }
+            if ("updatedAt".equals(field) || (source.containsKey(field) && !"createdAt".equals(field))) {
+                update.set(field, value);
+            } else {
+                update.setOnInsert(field, value);
+            }
+        });
+        return update.inc("version", 1);
+    }
+
+    private void flush(Batch batch, ImportReport report) {
+        if (batch.documents.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (int i = 0; i < batch.documents.size(); i++) {
+            Update update = batch.updates.get(i);
+            if (update == null) {
+                bulk.insert(batch.documents.get(i));
+                continue;
+            }
+            Query query = Query.query(Criteria.where("_id").is(batch.documents.get(i).get("_id")));
+            if (batch.complete.get(i)) {
+                bulk.upsert(query, update);
+            } else {
+                bulk.updateOne(query, update);
+            }
+        }
+
+        try {
+            count(bulk.execute(), batch, 0, report);
+        } catch (BulkOperationException e) {
+            count(e.getResult(), batch, e.getErrors().size(), report);
+            for (BulkWriteError error : e.getErrors()) {
+                int index = error.getIndex();
+                report.addError(batch.records.get(index), batch.ids.get(index), error.getMessage(), MAX_REPORTED_ERRORS);
+            }
+        } finally {
+            catalogVersions.catalogChanged();
+        }
+        batch.clear();
+    }
+
+    private void count(BulkWriteResult result, Batch batch, int failed, ImportReport report) {
+        report.setInserted(report.getInserted() + result.getInsertedCount() + result.getUpserts().size());
+        report.setUpdated(report.getUpdated() + result.getMatchedCount());
+        // Every other write succeeded by inserting or matching; what is left are partial records for unknown ids
+        report.setNotFound(report.getNotFound() + batch.documents.size() - failed
+                - result.getInsertedCount() - result.getUpserts().size() - result.getMatchedCount());
+    }
+
+    private static class Batch {
+        private final int capacity;
+        private final List<Document> documents;
+        private final List<Update> updates; // null for inserts
+        private final List<Boolean> complete;
+        private final List<Long> records;
+        private final List<String> ids;
+
+        Batch(int capacity) {
+            this.capacity = capacity;
+            this.documents = new ArrayList<>(capacity);
+            this.updates = new ArrayList<>(capacity);
+            this.complete = new ArrayList<>(capacity);
+            this.records = new ArrayList<>(capacity);
+            this.ids = new ArrayList<>(capacity);
+        }
+
+        void add(Document document, Update update, boolean complete, long record, String id) {
+            documents.add(document);
+            updates.add(update);
+            this.complete.add(complete);
+            records.add(record);
+            ids.add(id);
+        }
+
+        boolean isFull() {
+            return documents.size() >= capacity;
+        }
+
+        void clear() {
+            documents.clear();
+            updates.clear();
+            complete.clear();
+            records.clear();
+            ids.clear();
+        }
+    }
+}
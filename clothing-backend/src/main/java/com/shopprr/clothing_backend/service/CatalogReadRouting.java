@@ -0,0 +1,55 @@
+package com.shopprr.clothing_backend.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ReadPreference;
+
+/**
+ * Sends catalog and review reads to replica set secondaries, picked with a max-staleness bound.
+ * Responses are cached and tagged under the {@link CatalogVersions} they were read at, so a read
+ * served by a secondary that has not yet replicated a change would pin stale data to the new
+ * version. Reads of data that changed within the staleness bound (plus one server heartbeat)
+ * therefore stay on the primary; once it has settled, every eligible secondary has it.
+ * Cart, order, pricing and auth reads never come through here and stay on the primary.
+ */
+@Component
+public class CatalogReadRouting {
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final CatalogVersions catalogVersions;
+    private final ReadPreference preference;
+    private final long settleNanos;
+
+    public CatalogReadRouting(CatalogVersions catalogVersions,
+            @Value("${mongo.catalog-reads.read-preference:secondaryPreferred}") String readPreference,
+            @Value("${mongo.catalog-reads.max-staleness-seconds:90}") long maxStalenessSeconds) {
+        this.catalogVersions = catalogVersions;
+        // The server rejects max staleness below 90 seconds
+        long staleness = Math.max(90, maxStalenessSeconds);
+        this.preference = "primary".equalsIgnoreCase(readPreference)
+                ? ReadPreference.primary()
+                : ReadPreference.valueOf(readPreference, List.of(), staleness, TimeUnit.SECONDS);
+        this.settleNanos = TimeUnit.SECONDS.toNanos(staleness) + HEARTBEAT_NANOS;
+    }
+
+    // Products and categories
+    public Query catalog(Query query) {
+        return route(query, catalogVersions.catalogChangedAt());
+    }
+
+    public Query reviews(Query query, String productId) {
+        return route(query, catalogVersions.reviewsChangedAt(productId));
+    }
+
+    private Query route(Query query, long changedAt) {
+        if (preference.isSecondaryOk() && System.nanoTime() - changedAt > settleNanos) {
+            query.withReadPreference(preference);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,134 @@
+package com.shopprr.clothing_backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Serialized catalog responses, keyed by query and the {@link CatalogVersions} version they were
+ * built from. A hit skips both the repository and Jackson: the stored JSON (or its gzip copy, when
+ * the client accepts it) is written as-is. A version change simply makes the next request rebuild
+ * the entry. Hits and misses are reported as {@code cache.gets{cache=catalogResponses}}.
+ * Entries are kept in LRU order, so requests for made-up category names can only push out each
+ * other and rarely-read pages, not the hot fixed lists.
+ */
+@Component
+public class CatalogResponseCache {
+    private static final int MAX_ENTRIES = 512;
+    private static final int MIN_COMPRESS_SIZE = 1024;
+
+    private record Entry(long version, byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+    // Loads in progress, so concurrent misses for a key share one build without holding a map lock
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CatalogResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("cache.gets").tag("cache", "catalogResponses").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "catalogResponses").tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("cache.size", Tags.of("cache", "catalogResponses"), entries);
+    }
+
+    /**
+     * Returns the cached body for {@code key} at {@code version}, building it with {@code loader}
+     * on a miss. Concurrent misses for the same key wait for a single load.
+     */
+    public ResponseEntity<byte[]> get(String key, long version, WebRequest request, Supplier<Object> loader) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+        } else {
+            entry = load(key, version, loader);
+        }
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = entry.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CatalogVersions.CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // Already compressed, so Tomcat leaves it alone
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return response.body(entry.json());
+    }
+
+    private Entry load(String key, long version, Supplier<Object> loader) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> inProgress = loading.putIfAbsent(key, mine);
+        if (inProgress != null) {
+            Entry loaded = inProgress.join();
+            if (loaded.version() == version) {
+                return loaded; // loaded by a concurrent request while we waited
+            }
+        }
+        try {
+            Entry loaded = inProgress == null ? entries.get(key) : null;
+            if (loaded == null || loaded.version() != version) {
+                misses.increment();
+                loaded = build(version, loader.get());
+                // A slower load of an older version must not replace a newer entry
+                entries.merge(key, loaded, (current, fresh) -> fresh.version() >= current.version() ? fresh : current);
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private Entry build(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Entry(version, json, json.length >= MIN_COMPRESS_SIZE ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.shopprr.clothing_backend.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory versions of the catalog, bumped by the services that write products and reviews, and
+ * by {@link CatalogChangeListener} for writes made by other nodes.
+ * Catalog reads turn them into weak ETags so {@code If-None-Match} can be answered with a 304
+ * before anything is loaded or serialized. The epoch changes on every start, so tags handed out
+ * by a previous process never validate.
+ */
+@Component
+public class CatalogVersions {
+    // Responses may be stored by browsers and the edge, but must be revalidated on every use
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> productVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> reviewVersions = new ConcurrentHashMap<>();
+    private volatile long catalogVersion;
+    private volatile long categoryVersion;
+    private volatile long productFloor; // raised by bulk changes so every product tag moves at once
+    private volatile long reviewFloor; // same for reviews whose product is not known
+    // System.nanoTime() of the last change, for CatalogReadRouting; a start counts as a change
+    private final Map<String, Long> reviewsChangedAt = new ConcurrentHashMap<>();
+    private volatile long catalogChangedAt = System.nanoTime();
+    private volatile long allReviewsChangedAt = catalogChangedAt;
+
+    public long catalogVersion() {
+        return catalogVersion;
+    }
+
+    public long categoryVersion() {
+        return categoryVersion;
+    }
+
+    public long productVersion(String productId) {
+        return Math.max(productFloor, productVersions.getOrDefault(productId, 0L));
+    }
+
+    public long reviewVersion(String productId) {
+        return Math.max(reviewFloor, reviewVersions.getOrDefault(productId, 0L));
+    }
+
+    // Products or categories
+    public long catalogChangedAt() {
+        return catalogChangedAt;
+    }
+
+    public long reviewsChangedAt(String productId) {
+        Long changedAt = reviewsChangedAt.get(productId);
+        return changedAt != null && changedAt - allReviewsChangedAt > 0 ? changedAt : allReviewsChangedAt;
+    }
+
+    public void productChanged(String productId) {
+        long version = sequence.incrementAndGet();
+        if (productId != null) {
+            productVersions.put(productId, version);
+        }
+        catalogVersion = version;
+        catalogChangedAt = System.nanoTime();
+    }
+
+    public void catalogChanged() {
+        long version = sequence.incrementAndGet();
+        productFloor = version;
+        productVersions.clear();
+        catalogVersion = version;
+        catalogChangedAt = System.nanoTime();
+    }
+
+    public void categoriesChanged() {
+        categoryVersion = sequence.incrementAndGet();
+        catalogChangedAt = System.nanoTime();
+    }
+
+    public void reviewsChanged(String productId) {
+        reviewVersions.put(productId, sequence.incrementAndGet());
+        reviewsChangedAt.put(productId, System.nanoTime());
+    }
+
+    public void allReviewsChanged() {
+        reviewFloor = sequence.incrementAndGet();
+        reviewVersions.clear();
+        allReviewsChangedAt = System.nanoTime();
+        reviewsChangedAt.clear();
+    }
+
+    /**
+     * Weak ETag for a resource at {@code version}. Strong tags would have to differ per encoding, and
+     * Tomcat 10.1 never compresses a response that carries a strong tag (there is no setting to allow
+     * it), so strong tags would mean giving up gzip on the largest catalog responses. A weak tag
+     * treats the gzip and identity bodies as one representation, which is all a 304 needs; it cannot
+     * serve byte-range requests, which these JSON endpoints do not get.
+     */
+    public String eTag(String resource, long version) {
+        return "W/\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final CatalogVersions catalogVersions;
 
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
@@ -29,15 +30,20 @@ public class CategoryService {
     }
 
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        catalogVersions.categoriesChanged();
+        return saved;
     }
 
     public Category updateCategory(String id, Category category) {
         category.setId(id);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        catalogVersions.categoriesChanged();
+        return saved;
     }
 
     public void deleteCategory(String id) {
         categoryRepository.deleteById(id);
+        catalogVersions.categoriesChanged();
     }
 }
@@ -0,0 +1,175 @@
+package com.shopprr.clothing_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.DBRef;
+import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.User;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link User.OrderStats} (order count, lifetime spend, last order date) current with
+ * {@code $inc}/{@code $max} as orders are placed, cancelled and deleted, so customer lists can show
+ * and sort by them without reading orders. Cancelled orders do not count.
+ * {@link #rebuild()} recomputes every customer's stats and is only triggered by an admin to repair drift.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerOrderStatsService {
+    private static final int INIT_CHUNK = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Computes stats for users that have none yet, from their orders; other users' stats are left
+     * alone. Applied once by {@code CustomerOrderStatsMigration}.
+     */
+    public void initialiseMissing() {
+        Query missing = Query.query(Criteria.where("orderStats").exists(false));
+        missing.fields().include("_id");
+        List<Object> userIds = mongoTemplate.find(missing, Document.class, mongoTemplate.getCollectionName(User.class))
+                .stream().map(user -> user.get("_id")).toList();
+        // Chunked so the $in lists stay small; only these users are zeroed, so live counts elsewhere are untouched
+        for (int start = 0; start < userIds.size(); start += INIT_CHUNK) {
+            List<Object> chunk = userIds.subList(start, Math.min(start + INIT_CHUNK, userIds.size()));
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(chunk).and("orderStats").exists(false)),
+                    new Update().set("orderStats", new User.OrderStats()), User.class);
+            mergeStats(new Document("$match", new Document("user.$id", new Document("$in", chunk))));
+        }
+        if (!userIds.isEmpty()) {
+            log.info("Initialised order stats for {} customers", userIds.size());
+        }
+    }
+
+    public static boolean counts(String status) {
+        return !"cancelled".equalsIgnoreCase(status);
+    }
+
+    // New orders: one update per customer however many of the orders are theirs
+    public void recordOrders(List<Order> orders) {
+        Map<Object, Delta> deltas = new HashMap<>();
+        for (Order order : orders) {
+            if (order.getUser() == null) {
+                continue;
+            }
+            Delta delta = deltas.computeIfAbsent(order.getUser().getId(), id -> new Delta());
+            if (counts(order.getStatus())) {
+                delta.add(1, order.getTotalAmount() != null ? order.getTotalAmount() : 0.0);
+            }
+            if (delta.lastOrderAt == null || order.getCreatedAt().isAfter(delta.lastOrderAt)) {
+                delta.lastOrderAt = order.getCreatedAt();
+            }
+        }
+        write(deltas);
+    }
+
+    /**
+     * Stat fields of orders as stored, read without resolving the user reference. Use with
+     * {@link #adjust} for orders that are about to be removed or have changed status.
+     */
+    public List<Document> read(Collection<String> orderIds) {
+        Query query = Query.query(Criteria.where("_id").in(orderIds));
+        query.fields().include("user", "totalAmount", "status");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Order.class));
+    }
+
+    // sign -1 takes the orders out of their customers' stats (cancelled or deleted), +1 puts them back
+    public void adjust(List<Document> orders, int sign) {
+        Map<Object, Delta> deltas = new HashMap<>();
+        for (Document order : orders) {
+            if (order.get("user") instanceof DBRef user) {
+                double amount = order.get("totalAmount") instanceof Number total ? total.doubleValue() : 0.0;
+                deltas.computeIfAbsent(user.getId(), id -> new Delta()).add(sign, sign * amount);
+            }
+        }
+        write(deltas);
+    }
+
+    /**
+     * Recomputes all stats from the orders collection in one aggregation that merges into users.
+     * Orders placed while it runs may be counted twice or not at all; run it again if that matters.
+     * @return the number of customers with at least one order
+     */
+    public long rebuild() {
+        mongoTemplate.updateMulti(new Query(), new Update().set("orderStats", new User.OrderStats()), User.class);
+        mergeStats(null);
+        return mongoTemplate.count(Query.query(Criteria.where("orderStats.lastOrderAt").ne(null)), User.class);
+    }
+
+    // Groups orders (optionally filtered by match) per customer and merges the totals into users
+    private void mergeStats(Document match) {
+        // DBRef fields are not addressable as a path ($user.$id), hence $getField
+        Document userId = new Document("$getField", new Document("field", new Document("$literal", "$id")).append("input", "$user"));
+        Document counted = new Document("$ne", List.of(
+                new Document("$toLower", new Document("$ifNull", List.of("$status", ""))), "cancelled"));
+        List<Document> pipeline = new ArrayList<>();
+        if (match != null) {
+            pipeline.add(match);
+        }
+        pipeline.addAll(List.of(
+                new Document("$group", new Document("_id", userId)
+                        .append("orderCount", new Document("$sum", new Document("$cond", List.of(counted, 1, 0))))
+                        .append("lifetimeSpend", new Document("$sum", new Document("$cond",
+                                List.of(counted, new Document("$ifNull", List.of("$totalAmount", 0.0)), 0.0))))
+                        .append("lastOrderAt", new Document("$max", "$createdAt"))),
+                new Document("$match", new Document("_id", new Document("$ne", null))),
+                new Document("$project", new Document("orderStats", new Document("orderCount", "$orderCount")
+                        .append("lifetimeSpend", "$lifetimeSpend")
+                        .append("lastOrderAt", "$lastOrderAt"))),
+                new Document("$merge", new Document("into", mongoTemplate.getCollectionName(User.class))
+                        .append("on", "_id")
+                        .append("whenMatched", "merge")
+                        .append("whenNotMatched", "discard"))));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class))
+                .aggregate(pipeline).allowDiskUse(true).toCollection();
+    }
+
+    private static class Delta {
+        int orderCount;
+        double lifetimeSpend;
+        LocalDateTime lastOrderAt;
+
+        void add(int orders, double spend) {
+            orderCount += orders;
+            lifetimeSpend += spend;
+        }
+    }
+
+    private void write(Map<Object, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        deltas.forEach((userId, delta) -> {
+            Update update = new Update()
+                    .inc("orderStats.orderCount", delta.orderCount)
+                    .inc("orderStats.lifetimeSpend", delta.lifetimeSpend);
+            if (delta.lastOrderAt != null) {
+                update.max("orderStats.lastOrderAt", delta.lastOrderAt);
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(userId)), update);
+        });
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // The order change itself has happened; a rebuild brings the stats back in line
+            log.warn("Could not update order stats for {} customers: {}", deltas.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.shopprr.clothing_backend.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.shopprr.clothing_backend.dto.OrderEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans order events out to connected admin dashboards over SSE. Publishing never blocks: every
+ * subscriber has its own bounded queue drained by its own virtual thread, so one slow browser
+ * cannot hold up the others or the request that changed the order. A subscriber whose queue
+ * overflows gets a single {@code resync} event instead of the lost ones. Recent events are kept
+ * so a reconnecting {@code EventSource} can resume from {@code Last-Event-ID}.
+ */
+@Slf4j
+@Service
+public class OrderEventBroadcaster {
+    private static final int SUBSCRIBER_BUFFER = 256;
+    private static final int REPLAY_BUFFER = 512;
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<OrderEvent> recent = new ArrayDeque<>(REPLAY_BUFFER);
+    private long sequence;
+
+    public void publish(OrderEvent event) {
+        synchronized (recent) {
+            event.setSequence(++sequence);
+            if (recent.size() == REPLAY_BUFFER) {
+                recent.removeFirst();
+            }
+            recent.addLast(event);
+            // Under the lock so every queue gets events in sequence order; a subscriber skips anything
+            // older than what it last sent, so an out-of-order event would be lost. offer never blocks
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(EMITTER_TIMEOUT_MS));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+
+        // Queue the replay and register in one step so no event falls in between; an event that
+        // is both replayed and fanned out is sent once, as the subscriber skips old sequences
+        synchronized (recent) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                missedSince(lastEventId).forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.thread = Thread.ofVirtual().name("order-events").start(subscriber::drain);
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Called with the recent lock held
+    private List<OrderEvent> missedSince(String lastEventId) {
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return List.of(OrderEvent.resync());
+        }
+        // Sequence is per process: an id from before a restart, or one already evicted, needs a full reload
+        if (last > sequence || (!recent.isEmpty() && recent.peekFirst().getSequence() > last + 1)) {
+            return List.of(OrderEvent.resync());
+        }
+        List<OrderEvent> missed = new ArrayList<>();
+        for (OrderEvent event : recent) {
+            if (event.getSequence() > last) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.thread != null) {
+            subscriber.thread.interrupt();
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderEvent> queue = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER);
+        private volatile Thread thread;
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(OrderEvent event) {
+            if (!queue.offer(event)) {
+                // Too far behind: drop the backlog and tell the dashboard to reload instead
+                queue.clear();
+                queue.offer(OrderEvent.resync());
+            }
+        }
+
+        void drain() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    OrderEvent event = queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else if (event.getSequence() == 0 || event.getSequence() > lastSent) {
+                        SseEmitter.SseEventBuilder sse = SseEmitter.event().name(event.getType()).data(event);
+                        if (event.getSequence() > 0) {
+                            sse.id(Long.toString(event.getSequence()));
+                            lastSent = event.getSequence();
+                        }
+                        emitter.send(sse);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks unregister the subscriber
+                log.debug("Order event subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.shopprr.clothing_backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.DBRef;
+import com.shopprr.clothing_backend.model.Order;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes orders straight from a Mongo cursor to an output stream, one row at a time.
+ * Raw documents are read instead of {@link Order} so the
+ * {@code user} DBRef is never resolved - the export costs one cursor, not one extra query per order.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER = "orderId,createdAt,updatedAt,status,paymentMethod,totalAmount,userId,"
+            + "firstName,lastName,email,phone,street,city,state,zipcode,country,itemCount,items";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    // from is inclusive, to exclusive
+    public void writeNdjson(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        // AUTO_CLOSE_TARGET off: the servlet container owns the response stream
+        try (Stream<Document> orders = streamOrders(from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            int written = 0;
+            for (Document order : (Iterable<Document>) orders::iterator) {
+                writeJsonRow(generator, order);
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    public void writeCsv(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Document> orders = streamOrders(from, to)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            int written = 0;
+            for (Document order : (Iterable<Document>) orders::iterator) {
+                writeCsvRow(writer, order);
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private Stream<Document> streamOrders(LocalDateTime from, LocalDateTime to) {
+        Query query = new Query();
+        if (from != null || to != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (from != null) {
+                createdAt = createdAt.gte(from);
+            }
+            if (to != null) {
+                createdAt = createdAt.lt(to);
+            }
+            query.addCriteria(createdAt);
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Order.class));
+    }
+
+    private void writeJsonRow(JsonGenerator generator, Document order) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("orderId", idOf(order.get("_id")));
+        generator.writeStringField("userId", userIdOf(order));
+        generator.writeStringField("createdAt", formatDate(order.get("createdAt")));
+        generator.writeStringField("updatedAt", formatDate(order.get("updatedAt")));
+        generator.writeStringField("status", stringOf(order.get("status")));
+        generator.writeStringField("paymentMethod", stringOf(order.get("paymentMethod")));
+        Number total = order.get("totalAmount", Number.class);
+        if (total != null) {
+            generator.writeNumberField("totalAmount", total.doubleValue());
+        } else {
+            generator.writeNullField("totalAmount");
+        }
+
+        Document address = order.get("address", Document.class);
+        if (address != null) {
+            generator.writeObjectFieldStart("address");
+            for (String key : address.keySet()) {
+                generator.writeStringField(key, stringOf(address.get(key)));
+            }
+            generator.writeEndObject();
+        }
+
+        generator.writeArrayFieldStart("items");
+        for (Document item : itemsOf(order)) {
+            generator.writeStartObject();
+            generator.writeStringField("product", productIdOf(item));
+            generator.writeStringField("size", stringOf(item.get("size")));
+            Number quantity = item.get("quantity", Number.class);
+            generator.writeNumberField("quantity", quantity != null ? quantity.intValue() : 0);
+            Number price = item.get("price", Number.class);
+            if (price != null) {
+                generator.writeNumberField("price", price.doubleValue());
+            } else {
+                generator.writeNullField("price");
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeCsvRow(Writer writer, Document order) throws IOException {
+        Document address = order.get("address", Document.class);
+        if (address == null) {
+            address = new Document();
+        }
+        List<Document> items = itemsOf(order);
+
+        StringBuilder itemsColumn = new StringBuilder();
+        for (Document item : items) {
+            if (itemsColumn.length() > 0) {
+                itemsColumn.append(';');
+            }
+            itemsColumn.append(productIdOf(item))
+                    .append(':').append(stringOf(item.get("size")))
+                    .append(':').append(item.get("quantity"))
+                    .append('@').append(item.get("price"));
+        }
+
+        Object total = order.get("totalAmount");
+        String[] columns = {
+            idOf(order.get("_id")),
+            formatDate(order.get("createdAt")),
+            formatDate(order.get("updatedAt")),
+            stringOf(order.get("status")),
+            stringOf(order.get("paymentMethod")),
+            total != null ? total.toString() : null,
+            userIdOf(order),
+            stringOf(address.get("firstName")),
+            stringOf(address.get("lastName")),
+            stringOf(address.get("email")),
+            stringOf(address.get("phone")),
+            stringOf(address.get("street")),
+            stringOf(address.get("city")),
+            stringOf(address.get("state")),
+            stringOf(address.get("zipcode")),
+            stringOf(address.get("country")),
+            Integer.toString(items.size()),
+            itemsColumn.toString()
+        };
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(columns[i]));
+        }
+        writer.write('\n');
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Document> itemsOf(Document order) {
+        Object items = order.get("items");
+        return items instanceof List ? (List<Document>) items : List.of();
+    }
+
+    private String userIdOf(Document order) {
+        Object user = order.get("user");
+        if (user instanceof DBRef ref) {
+            return idOf(ref.getId());
+        }
+        return null;
+    }
+
+    private String productIdOf(Document item) {
+        // Older fixture orders embed a product snapshot instead of the product id
+        Object product = item.get("product");
+        if (product instanceof Document snapshot) {
+            return stringOf(snapshot.get("_id"));
+        }
+        return stringOf(product);
+    }
+
+    private String idOf(Object id) {
+        return stringOf(id);
+    }
+
+    private String stringOf(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private String formatDate(Object value) {
+        // Spring Data stores LocalDateTime as a Date in the system zone, so convert back the same way
+        if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).toString();
+        }
+        return null;
+    }
+
+    private String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Spreadsheets run cells starting with = + - @ as formulas; customer-entered text must not
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0 && !isNumber(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
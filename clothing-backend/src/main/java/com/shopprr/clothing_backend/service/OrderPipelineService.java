@@ -0,0 +1,418 @@
+package com.shopprr.clothing_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.shopprr.clothing_backend.dto.OrderEvent;
+import com.shopprr.clothing_backend.model.Order;
+import com.shopprr.clothing_backend.model.OrderTicket;
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.model.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous checkout. {@link #enqueue} durably records the request as an {@link OrderTicket}
+ * (one insert) and returns; a fixed pool of workers claims queued tickets in batches, prices them
+ * with one product lookup per batch, inserts the orders with one bulk write and marks the tickets
+ * done. Orders reuse the ticket id, so a batch that is retried after a crash cannot create
+ * duplicates. Tickets stuck in {@code processing} past the claim timeout, or claimed by a batch
+ * that threw, are put back in the queue; after {@code order.pipeline.max-attempts} claims they are
+ * marked {@code failed} instead, so pollers see a final status.
+ */
+@Slf4j
+@Service
+public class OrderPipelineService {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long MAX_WAIT_MS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CartQuoteService cartQuoteService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final PurchaseVerificationService purchaseVerificationService;
+    private final CustomerOrderStatsService customerOrderStatsService;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long claimTimeoutMs;
+    private final int maxAttempts;
+
+    private final Object signal = new Object();
+    private final Map<String, List<CompletableFuture<OrderTicket>>> waiters = new ConcurrentHashMap<>();
+    private final Counter completedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public OrderPipelineService(MongoTemplate mongoTemplate, CartQuoteService cartQuoteService,
+            OrderEventBroadcaster orderEventBroadcaster,
+            PurchaseVerificationService purchaseVerificationService,
+            CustomerOrderStatsService customerOrderStatsService, MeterRegistry meterRegistry,
+            @Value("${order.pipeline.workers:4}") int workers,
+            @Value("${order.pipeline.batch-size:50}") int batchSize,
+            @Value("${order.pipeline.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${order.pipeline.claim-timeout-ms:60000}") long claimTimeoutMs,
+            @Value("${order.pipeline.max-attempts:5}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.cartQuoteService = cartQuoteService;
+        this.orderEventBroadcaster = orderEventBroadcaster;
+        this.purchaseVerificationService = purchaseVerificationService;
+        this.customerOrderStatsService = customerOrderStatsService;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMs = pollIntervalMs;
+        this.claimTimeoutMs = claimTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.completedCounter = Counter.builder("orders.pipeline.tickets").tag("outcome", "completed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("orders.pipeline.tickets").tag("outcome", "rejected").register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.pipeline.tickets").tag("outcome", "failed").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.pipeline.batch.size").register(meterRegistry);
+    }
+
+    public OrderTicket enqueue(String userId, List<Order.OrderItem> items, Order.Address address, String paymentMethod) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        for (Order.OrderItem item : items) {
+            if (item.getProduct() == null || item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Every item needs a product and a quantity of at least 1");
+            }
+        }
+
+        OrderTicket ticket = new OrderTicket();
+        ticket.setId(new ObjectId().toHexString());
+        ticket.setUserId(userId);
+        ticket.setItems(items);
+        ticket.setAddress(address);
+        ticket.setPaymentMethod(paymentMethod);
+        ticket.setStatus(OrderTicket.QUEUED);
+        ticket.setCreatedAt(LocalDateTime.now());
+        ticket.setUpdatedAt(ticket.getCreatedAt());
+        mongoTemplate.insert(ticket);
+
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        return ticket;
+    }
+
+    public OrderTicket getTicket(String ticketId) {
+        return mongoTemplate.findById(ticketId, OrderTicket.class);
+    }
+
+    /**
+     * Completes with the ticket once it is done, or with {@code current} after {@code waitMs}.
+     * Only completions in this process are seen; on other instances the wait simply times out and
+     * the client polls again.
+     */
+    public CompletableFuture<OrderTicket> awaitDone(OrderTicket current, long waitMs) {
+        if (current.isDone() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<OrderTicket> future = new CompletableFuture<>();
+        waiters.computeIfAbsent(current.getId(), id -> new CopyOnWriteArrayList<>()).add(future);
+        future.whenComplete((ticket, error) -> waiters.computeIfPresent(current.getId(), (id, list) -> {
+            list.remove(future);
+            return list.isEmpty() ? null : list;
+        }));
+
+        // The ticket may have finished between the caller's read and the registration above
+        OrderTicket latest = getTicket(current.getId());
+        if (latest != null && latest.isDone()) {
+            future.complete(latest);
+        }
+        return future.completeOnTimeout(current, Math.min(waitMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::workLoop);
+        }
+        log.info("Order pipeline started with {} workers, batch size {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Tickets claimed by a worker that died (or a process that was killed) go back to the queue
+    @Scheduled(fixedDelayString = "${order.pipeline.claim-timeout-ms:60000}")
+    public void requeueStaleClaims() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(claimTimeoutMs));
+        long requeued = releaseClaims(Criteria.where("claimedAt").lt(cutoff), "Claim expired");
+        if (requeued > 0) {
+            log.warn("Requeued {} order tickets whose claim expired", requeued);
+        }
+    }
+
+    /**
+     * Puts claimed tickets matching {@code claimed} back in the queue, or marks them failed once
+     * they have used up their attempts. Returns the number requeued.
+     */
+    private long releaseClaims(Criteria claimed, String reason) {
+        Criteria processing = Criteria.where("status").is(OrderTicket.PROCESSING);
+        Query exhausted = Query.query(new Criteria().andOperator(processing, claimed,
+                Criteria.where("attempts").gte(maxAttempts)));
+        exhausted.fields().include("_id");
+        List<String> failedIds = mongoTemplate.find(exhausted, OrderTicket.class).stream().map(OrderTicket::getId).toList();
+        if (!failedIds.isEmpty()) {
+            String error = reason + " after " + maxAttempts + " attempts";
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(failedIds).and("status").is(OrderTicket.PROCESSING)),
+                    new Update().set("status", OrderTicket.FAILED).set("error", error)
+                            .set("updatedAt", LocalDateTime.now()).unset("claimedBy").unset("claimedAt"),
+                    OrderTicket.class);
+            log.error("Gave up on {} order tickets: {}", failedIds.size(), error);
+            for (OrderTicket ticket : mongoTemplate.find(Query.query(Criteria.where("_id").in(failedIds)), OrderTicket.class)) {
+                if (ticket.isDone()) {
+                    failedCounter.increment();
+                    notifyWaiters(ticket);
+                }
+            }
+        }
+        return mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(processing, claimed, Criteria.where("attempts").lt(maxAttempts))),
+                new Update().set("status", OrderTicket.QUEUED).set("error", reason)
+                        .unset("claimedBy").unset("claimedAt"),
+                OrderTicket.class).getModifiedCount();
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                List<OrderTicket> batch = claimBatch();
+                if (batch.isEmpty()) {
+                    synchronized (signal) {
+                        signal.wait(pollIntervalMs);
+                    }
+                    continue;
+                }
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    log.error("Order pipeline batch of {} tickets failed", batch.size(), e);
+                    releaseClaims(Criteria.where("claimedBy").is(batch.get(0).getClaimedBy()),
+                            "Processing failed: " + e.getMessage());
+                    sleepQuietly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Claiming or releasing failed; anything still claimed is requeued after the claim timeout
+                log.error("Order pipeline batch failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private List<OrderTicket> claimBatch() {
+        Query queued = Query.query(Criteria.where("status").is(OrderTicket.QUEUED))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        queued.fields().include("_id");
+        List<String> ids = mongoTemplate.find(queued, OrderTicket.class).stream().map(OrderTicket::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Other workers may race for the same ids; the status condition lets exactly one win each ticket
+        String claim = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(OrderTicket.QUEUED)),
+                new Update().set("status", OrderTicket.PROCESSING).set("claimedBy", claim)
+                        .set("claimedAt", LocalDateTime.now()).inc("attempts", 1),
+                OrderTicket.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(claim)), OrderTicket.class);
+    }
+
+    private void process(List<OrderTicket> batch) {
+        batchSizes.record(batch.size());
+
+        Set<String> userIds = batch.stream().map(OrderTicket::getUserId).collect(Collectors.toSet());
+        Set<String> productIds = new HashSet<>();
+        batch.forEach(ticket -> ticket.getItems().forEach(item -> productIds.add(item.getProduct())));
+        // Ids only: an order needs nothing more of the user than its reference
+        Query userQuery = Query.query(Criteria.where("_id").in(userIds));
+        userQuery.fields().include("_id");
+        Map<String, User> users = mongoTemplate.find(userQuery, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, Product> products = cartQuoteService.findForPricing(productIds);
+
+        List<Order> orders = new ArrayList<>();
+        Map<String, String> rejections = new HashMap<>();
+        for (OrderTicket ticket : batch) {
+            String problem = price(ticket, users, products);
+            if (problem != null) {
+                rejections.put(ticket.getId(), problem);
+            } else {
+                orders.add(toOrder(ticket, users.get(ticket.getUserId())));
+            }
+        }
+
+        insertOrders(orders);
+        finish(batch, rejections);
+    }
+
+    // Sets item prices from the current catalog; returns why the ticket cannot become an order
+    private String price(OrderTicket ticket, Map<String, User> users, Map<String, Product> products) {
+        if (!users.containsKey(ticket.getUserId())) {
+            return "User not found";
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Order.OrderItem item : ticket.getItems()) {
+            Product product = products.get(item.getProduct());
+            if (product == null) {
+                return "Product not found: " + item.getProduct();
+            }
+            if (Boolean.FALSE.equals(product.getInStock())) {
+                return "Product out of stock: " + product.getName();
+            }
+            item.setPrice(CartQuoteService.unitPrice(product, now));
+        }
+        return null;
+    }
+
+    private Order toOrder(OrderTicket ticket, User user) {
+        double totalAmount = 0.0;
+        for (Order.OrderItem item : ticket.getItems()) {
+            totalAmount += item.getPrice() * item.getQuantity();
+        }
+
+        Order order = new Order();
+        order.setId(ticket.getId());
+        order.setUser(user);
+        order.setItems(ticket.getItems());
+        order.setAddress(ticket.getAddress());
+        order.setPaymentMethod(ticket.getPaymentMethod());
+        order.setTotalAmount(totalAmount);
+        order.setStatus("pending");
+        order.setCreatedAt(ticket.getCreatedAt());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setVersion(0L); // bulk inserts do not initialise @Version
+        return order;
+    }
+
+    private void insertOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Set<Integer> alreadyInserted = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class).insert(orders).execute();
+        } catch (BulkOperationException e) {
+            // Duplicate ids mean a previous attempt already inserted the order
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                alreadyInserted.add(error.getIndex());
+            }
+        }
+        List<Order> inserted = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (!alreadyInserted.contains(i)) {
+                inserted.add(orders.get(i));
+                orderEventBroadcaster.publish(OrderEvent.created(orders.get(i)));
+            }
+        }
+        // Not idempotent, so only orders this attempt inserted
+        customerOrderStatsService.recordOrders(inserted);
+        // Idempotent ($min), so orders a previous attempt inserted are recorded again in case it stopped here
+        purchaseVerificationService.recordPurchases(orders);
+    }
+
+    private void finish(List<OrderTicket> batch, Map<String, String> rejections) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderTicket.class);
+        for (OrderTicket ticket : batch) {
+            String problem = rejections.get(ticket.getId());
+            Update update = new Update().set("updatedAt", now).unset("claimedBy").unset("claimedAt");
+            if (problem != null) {
+                update.set("status", OrderTicket.REJECTED).set("error", problem);
+            } else {
+                update.set("status", OrderTicket.COMPLETED).set("orderId", ticket.getId()).unset("error");
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(ticket.getId())), update);
+        }
+        bulk.execute();
+
+        for (OrderTicket ticket : batch) {
+            String problem = rejections.get(ticket.getId());
+            ticket.setStatus(problem != null ? OrderTicket.REJECTED : OrderTicket.COMPLETED);
+            ticket.setError(problem);
+            ticket.setOrderId(problem != null ? null : ticket.getId());
+            ticket.setUpdatedAt(now);
+            ticket.setClaimedBy(null);
+            ticket.setClaimedAt(null);
+            (problem != null ? rejectedCounter : completedCounter).increment();
+
+            notifyWaiters(ticket);
+        }
+    }
+
+    private void notifyWaiters(OrderTicket ticket) {
+        List<CompletableFuture<OrderTicket>> waiting = waiters.remove(ticket.getId());
+        if (waiting != null) {
+            waiting.forEach(future -> future.complete(ticket));
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.shopprr.clothing_backend.service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.bulk.BulkWriteResult;
+import com.shopprr.clothing_backend.dto.CartQuote;
+import com.shopprr.clothing_backend.dto.OrderEvent;
 import com.shopprr.clothing_backend.dto.OrderResponse;
+import com.shopprr.clothing_backend.dto.OrderStatusBatchResult;
 import com.shopprr.clothing_backend.model.Order;
 import com.shopprr.clothing_backend.model.Product;
 import com.shopprr.clothing_backend.model.User;
@@ -19,22 +37,60 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    public static final int MAX_STATUS_BATCH = 1000;
+    private static final String CANCELLED = "cancelled";
+    // Fulfilment order; the admin UI uses the title-case names, older orders the lowercase ones
+    private static final Map<String, Integer> STATUS_RANK = Map.of(
+            "pending", 0, "order placed", 0,
+            "processing", 1, "packing", 1,
+            "shipped", 2,
+            "delivered", 3,
+            "done", 4);
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final MongoTemplate mongoTemplate;
+    private final VersionedUpdates versionedUpdates;
+    private final PurchaseVerificationService purchaseVerificationService;
+    private final CartQuoteService cartQuoteService;
+    private final CustomerOrderStatsService customerOrderStatsService;
 
     public Order createOrder(String userId, List<Order.OrderItem> items, Order.Address address, String paymentMethod) {
         // Get user
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Calculate total amount
+        // Calculate total amount; a quote still valid for this cart saves reading the products again
+        CartQuote quote = cartQuoteService.validQuote(userId, user.getVersion());
+        Map<String, Product> products = null;
+        LocalDateTime now = LocalDateTime.now();
         double totalAmount = 0.0;
         for (Order.OrderItem item : items) {
-            Product product = productRepository.findById(item.getProduct())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + item.getProduct()));
-            item.setPrice(product.getOfferPrice());
-            totalAmount += product.getOfferPrice() * item.getQuantity();
+            CartQuote.Line line = quote != null ? quote.line(item.getProduct()) : null;
+            Double price;
+            if (line != null) {
+                if (CartQuote.OUT_OF_STOCK.equals(line.getProblem())) {
+                    throw new RuntimeException("Product out of stock: " + line.getName());
+                }
+                price = line.getUnitPrice();
+            } else {
+                if (products == null) {
+                    products = cartQuoteService.findForPricing(items.stream().map(Order.OrderItem::getProduct).toList());
+                }
+                Product product = products.get(item.getProduct());
+                if (product == null) {
+                    throw new RuntimeException("Product not found: " + item.getProduct());
+                }
+                // Same rule as the order pipeline
+                if (Boolean.FALSE.equals(product.getInStock())) {
+                    throw new RuntimeException("Product out of stock: " + product.getName());
+                }
+                price = CartQuoteService.unitPrice(product, now);
+            }
+            item.setPrice(price);
+            totalAmount += price * item.getQuantity();
         }
 
         // Create order
@@ -48,7 +104,11 @@ public class OrderService {
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        purchaseVerificationService.recordPurchases(List.of(saved));
+        customerOrderStatsService.recordOrders(List.of(saved));
+        orderEventBroadcaster.publish(OrderEvent.created(saved));
+        return saved;
     }
 
     public List<OrderResponse> getUserOrders(String userId) {
@@ -75,8 +135,33 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
-    public Order updateOrder(Order order) {
-        return orderRepository.save(order);
+    /**
+     * Sets only the given fields (null means unchanged) and publishes the matching events.
+     * @return the order's status and version from before the change
+     * @throws VersionConflictException if {@code expectedVersion} is given and no longer current
+     */
+    public Order patchOrder(String orderId, Long expectedVersion, Order.Address address, String status) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (address != null) {
+            update.set("address", address);
+        }
+        if (status != null) {
+            update.set("status", status);
+        }
+        Order previous = versionedUpdates.apply(Order.class, orderId, expectedVersion, update, false, "status");
+
+        if (address != null) {
+            orderEventBroadcaster.publish(OrderEvent.addressUpdated(orderId, address));
+        }
+        if (status != null) {
+            // Cancelling takes the order out of the customer's stats, un-cancelling puts it back
+            boolean counted = CustomerOrderStatsService.counts(previous.getStatus());
+            if (counted != CustomerOrderStatsService.counts(status)) {
+                customerOrderStatsService.adjust(customerOrderStatsService.read(List.of(orderId)), counted ? -1 : 1);
+            }
+            orderEventBroadcaster.publish(OrderEvent.statusChanged(orderId, previous.getStatus(), status));
+        }
+        return previous;
     }
 
     public List<OrderResponse> getAllOrders() {
@@ -99,9 +184,137 @@ public class OrderService {
     }
 
     public void deleteOrder(String orderId) {
-        if (!orderRepository.existsById(orderId)) {
+        // Removes and returns the stat fields in one call, without resolving the user reference
+        Query query = Query.query(Criteria.where("_id").is(orderId));
+        query.fields().include("user", "totalAmount", "status");
+        Document removed = mongoTemplate.findAndRemove(query, Document.class, mongoTemplate.getCollectionName(Order.class));
+        if (removed == null) {
             throw new RuntimeException("Order not found");
         }
-        orderRepository.deleteById(orderId);
+        if (CustomerOrderStatsService.counts(removed.getString("status"))) {
+            customerOrderStatsService.adjust(List.of(removed), -1);
+        }
+        orderEventBroadcaster.publish(OrderEvent.deleted(orderId));
+    }
+
+    /**
+     * Moves many orders to {@code status} in one read and one unordered bulk write. Only the
+     * status is read (so the user DBRef is never resolved) and only status/updatedAt are written.
+     * Each update is conditional on the status that was read, so an order changed concurrently is
+     * reported as a conflict instead of being overwritten.
+     */
+    public OrderStatusBatchResult updateStatuses(List<String> orderIds, String status) {
+        List<String> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        Query read = Query.query(Criteria.where("_id").in(ids));
+        read.fields().include("status");
+        Map<String, String> current = new HashMap<>();
+        for (Order order : mongoTemplate.find(read, Order.class)) {
+            current.put(order.getId(), order.getStatus());
+        }
+
+        // Input order is kept so results line up with the request
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        Map<String, String> writes = new LinkedHashMap<>();
+        for (String id : ids) {
+            if (!current.containsKey(id)) {
+                outcomes.put(id, OrderStatusBatchResult.NOT_FOUND);
+                continue;
+            }
+            String previous = current.get(id);
+            if (status.equalsIgnoreCase(previous)) {
+                outcomes.put(id, OrderStatusBatchResult.UNCHANGED);
+            } else if (!canTransition(previous, status)) {
+                outcomes.put(id, OrderStatusBatchResult.INVALID_TRANSITION);
+            } else {
+                outcomes.put(id, OrderStatusBatchResult.UPDATED);
+                writes.put(id, previous);
+            }
+        }
+
+        if (!writes.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            // Tags the orders this batch wrote: the bulk result only has totals, and the final status cannot
+            // tell this write from a concurrent one that set the same status
+            String batchId = UUID.randomUUID().toString();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+            writes.forEach((id, previous) -> bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(id).and("status").is(previous)),
+                    new Update().set("status", status).set("statusBatch", batchId).set("updatedAt", now)
+                            .inc("version", 1)));
+            BulkWriteResult written = bulk.execute();
+
+            if (written.getMatchedCount() < writes.size()) {
+                Set<String> applied = writtenBy(batchId, writes.keySet());
+                for (String id : writes.keySet()) {
+                    if (!applied.contains(id)) {
+                        outcomes.put(id, OrderStatusBatchResult.CONFLICT);
+                    }
+                }
+            }
+
+            if (!CustomerOrderStatsService.counts(status)) {
+                List<String> cancelled = writes.keySet().stream()
+                        .filter(id -> OrderStatusBatchResult.UPDATED.equals(outcomes.get(id)))
+                        .filter(id -> CustomerOrderStatsService.counts(writes.get(id)))
+                        .toList();
+                if (!cancelled.isEmpty()) {
+                    customerOrderStatsService.adjust(customerOrderStatsService.read(cancelled), -1);
+                }
+            }
+        }
+
+        OrderStatusBatchResult result = new OrderStatusBatchResult();
+        result.setStatus(status);
+        outcomes.forEach((id, outcome) -> {
+            result.add(id, outcome, current.get(id));
+            if (OrderStatusBatchResult.UPDATED.equals(outcome)) {
+                orderEventBroadcaster.publish(OrderEvent.statusChanged(id, current.get(id), status));
+            }
+        });
+        result.count();
+        return result;
+    }
+
+    public static boolean isKnownStatus(String status) {
+        if (status == null) {
+            return false;
+        }
+        String normalized = status.toLowerCase(Locale.ROOT);
+        return STATUS_RANK.containsKey(normalized) || CANCELLED.equals(normalized);
+    }
+
+    /**
+     * Forward-only fulfilment: an order never moves back a stage, and can only be cancelled
+     * before it ships. Cancelled is final. Orders with a status outside the known set may move anywhere.
+     */
+    static boolean canTransition(String from, String to) {
+        String target = to.toLowerCase(Locale.ROOT);
+        if (from == null) {
+            return true;
+        }
+        String source = from.toLowerCase(Locale.ROOT);
+        if (CANCELLED.equals(source)) {
+            return false;
+        }
+        Integer sourceRank = STATUS_RANK.get(source);
+        if (sourceRank == null) {
+            return true;
+        }
+        if (CANCELLED.equals(target)) {
+            return sourceRank < STATUS_RANK.get("shipped");
+        }
+        Integer targetRank = STATUS_RANK.get(target);
+        return targetRank != null && targetRank >= sourceRank;
+    }
+
+    private Set<String> writtenBy(String batchId, Set<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("statusBatch").is(batchId));
+        query.fields().include("_id");
+        Set<String> written = new HashSet<>();
+        for (Order order : mongoTemplate.find(query, Order.class)) {
+            written.add(order.getId());
+        }
+        return written;
     }
 }
@@ -0,0 +1,72 @@
+package com.shopprr.clothing_backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+
+import com.shopprr.clothing_backend.model.Product;
+import com.shopprr.clothing_backend.monitoring.RequestDbStats;
+import com.shopprr.clothing_backend.repository.ReviewRepositoryCustom.FeedOrder;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Everything the product page shows, gathered in one call. The product (followed by its related
+ * products, which need its category), the rating stats and the first review page are independent
+ * queries, so they run concurrently on virtual threads; the response takes as long as the slowest
+ * branch rather than the sum of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductPageService {
+    public static final int RELATED_LIMIT = 5;
+
+    private final ProductService productService;
+    private final ReviewService reviewService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private record ProductWithRelated(Product product, List<Product> related) {
+    }
+
+    // Empty if the product does not exist
+    public Optional<Map<String, Object>> getProductPage(String productId) {
+        CompletableFuture<ProductWithRelated> product = supply(() -> {
+            Product found = productService.getProductById(productId).orElse(null);
+            List<Product> related = found != null ? productService.getRelatedProducts(found, RELATED_LIMIT) : List.of();
+            return new ProductWithRelated(found, related);
+        });
+        CompletableFuture<Map<String, Object>> stats = supply(() -> reviewService.getProductStats(productId));
+        CompletableFuture<Map<String, Object>> reviews = supply(() ->
+                reviewService.getReviewPage(productId, null, FeedOrder.NEWEST, null, ReviewService.DEFAULT_PAGE_SIZE));
+
+        CompletableFuture.allOf(product, stats, reviews).join();
+        if (product.join().product() == null) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("product", product.join().product());
+        page.put("related", product.join().related());
+        page.put("stats", stats.join());
+        page.put("reviews", reviews.join());
+        return Optional.of(page);
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> task) {
+        // Queries on the worker threads still count towards this request's X-Db-* stats
+        return CompletableFuture.supplyAsync(RequestDbStats.propagate(task), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
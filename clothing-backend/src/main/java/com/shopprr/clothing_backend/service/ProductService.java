@@ -1,23 +1,50 @@
 package com.shopprr.clothing_backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopprr.clothing_backend.dto.ProductSummary;
 import com.shopprr.clothing_backend.model.Product;
 import com.shopprr.clothing_backend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    // Fields an admin edit may change; ids, timestamps and the version are managed here
+    public static final Set<String> EDITABLE_FIELDS = Set.of(
+            "name", "description", "image", "price", "offerPrice", "category", "sizes", "colors", "details",
+            "popular", "inStock", "hasDiscount", "discountPercent", "discountStartDate", "discountEndDate");
+
     private final ProductRepository productRepository;
+    private final CatalogVersions catalogVersions;
+    private final VersionedUpdates versionedUpdates;
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+    private final ProductSummaryCache productSummaryCache;
 
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     public Optional<Product> getProductById(String id) {
-        return productRepository.findById(id);
+        return productRepository.findCatalogProduct(id);
     }
 
     public List<Product> getProductsByCategory(String category) {
@@ -28,16 +55,104 @@ public class ProductService {
         return productRepository.findByPopularTrue();
     }
 
+    // Card-sized summaries of other products in the same category: no details, sizes or colours, two images
+    public List<Product> getRelatedProducts(Product product, int limit) {
+        Query query = Query.query(Criteria.where("category").is(product.getCategory()).and("_id").ne(product.getId()))
+                .limit(limit);
+        query.fields()
+                .include("name", "description", "category", "price", "offerPrice", "inStock", "popular",
+                        "hasDiscount", "discountPercent", "discountStartDate", "discountEndDate")
+                .slice("image", 2);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    // Summaries in the order of ids, skipping unknown ones; cache misses are read in a single $in query
+    public List<ProductSummary> getProductSummaries(List<String> ids) {
+        return productSummaryCache.getAll(ids, missing -> {
+            Query query = Query.query(Criteria.where("_id").in(missing));
+            query.fields()
+                    .include("name", "category", "price", "offerPrice", "sizes", "inStock", "hasDiscount", "discountPercent")
+                    .slice("image", 1);
+            return mongoTemplate.find(query, Product.class).stream().map(ProductSummary::from).toList();
+        });
+    }
+
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalogVersions.productChanged(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Applies the editable fields present in {@code changes} (JSON-shaped, as sent by the admin UI)
+     * with a single {@code $set}; images and untouched fields are not rewritten.
+     * @throws VersionConflictException if {@code expectedVersion} is given and no longer current
+     */
+    public Product patchProduct(String id, Long expectedVersion, Map<String, Object> changes) {
+        Map<String, Object> editable = new HashMap<>(changes);
+        editable.keySet().retainAll(EDITABLE_FIELDS);
+
+        // Bind through Jackson so values get the same types as a full Product would
+        BeanWrapper values = new BeanWrapperImpl(objectMapper.convertValue(editable, Product.class));
+        Update update = new Update();
+        for (String field : editable.keySet()) {
+            update.set(field, values.getPropertyValue(field));
+        }
+        return patchProduct(id, expectedVersion, update);
+    }
+
+    public Product patchProduct(String id, Long expectedVersion, Update update) {
+        update.set("updatedAt", LocalDateTime.now());
+        Product saved = versionedUpdates.apply(Product.class, id, expectedVersion, update);
+        catalogVersions.productChanged(id);
+        return saved;
+    }
+
+    // One pipeline update for the whole selection; the offer price is computed from each product's own price
+    public long applyDiscount(List<String> ids, double discountPercent, LocalDateTime start, LocalDateTime end) {
+        ArithmeticOperators.ArithmeticOperatorFactory price = ArithmeticOperators.valueOf("price");
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("hasDiscount").toValue(true)
+                .set("discountPercent").toValue(discountPercent)
+                .set("discountStartDate").toValue(toDate(start))
+                .set("discountEndDate").toValue(toDate(end))
+                .set("offerPrice").toValue(price.subtract(price.multiplyBy(discountPercent / 100)));
+        return updateMany(ids, update);
+    }
+
+    public long removeDiscount(List<String> ids) {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("hasDiscount").toValue(false)
+                .set("discountPercent").toValue(0.0)
+                .set("offerPrice").toValue("$price")
+                .unset("discountStartDate", "discountEndDate");
+        return updateMany(ids, update);
     }
 
-    public Product updateProduct(String id, Product product) {
-        product.setId(id);
-        return productRepository.save(product);
+    private long updateMany(List<String> ids, AggregationUpdate update) {
+        update.set("updatedAt").toValue(toDate(LocalDateTime.now()))
+                .set("version").toValue(ArithmeticOperators.valueOf("version").add(1));
+        long matched = mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), update, Product.class)
+                .getMatchedCount();
+        ids.forEach(catalogVersions::productChanged);
+        return matched;
+    }
+
+    // Pipeline stages are not run through the entity conversions, so convert like Spring Data stores LocalDateTime
+    private static Date toDate(LocalDateTime value) {
+        return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
     }
 
     public void deleteProduct(String id) {
         productRepository.deleteById(id);
+        catalogVersions.productChanged(id);
+    }
+
+    // Encodes an uploaded image as a data URL stored inline in the product document
+    public static String toDataUrl(byte[] bytes, String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            contentType = "image/jpeg"; // default to jpeg
+        }
+        return "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(bytes);
     }
 }
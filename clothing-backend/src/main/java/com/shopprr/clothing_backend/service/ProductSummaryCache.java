@@ -0,0 +1,86 @@
+package com.shopprr.clothing_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.shopprr.clothing_backend.dto.ProductSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Product summaries keyed by id and tagged with the {@link CatalogVersions} product version they
+ * were read at, so an edited product is simply reloaded on its next lookup. Misses from one batch
+ * are loaded together. Hits and misses are reported as {@code cache.gets{cache=productSummaries}}.
+ */
+@Component
+public class ProductSummaryCache {
+    private static final int MAX_ENTRIES = 10000;
+
+    private record Entry(long version, ProductSummary summary) {
+    }
+
+    private final CatalogVersions catalogVersions;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductSummaryCache(CatalogVersions catalogVersions, MeterRegistry meterRegistry) {
+        this.catalogVersions = catalogVersions;
+        this.hits = Counter.builder("cache.gets").tag("cache", "productSummaries").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "productSummaries").tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("cache.size", Tags.of("cache", "productSummaries"), entries);
+    }
+
+    /**
+     * Summaries for {@code ids} in request order; ids that {@code loader} does not return are left out.
+     * @param loader reads the given ids from the database in one query
+     */
+    public List<ProductSummary> getAll(List<String> ids, Function<List<String>, List<ProductSummary>> loader) {
+        Map<String, ProductSummary> found = new HashMap<>();
+        Map<String, Long> missing = new HashMap<>();
+        for (String id : ids) {
+            long version = catalogVersions.productVersion(id);
+            Entry entry = entries.get(id);
+            if (entry != null && entry.version() == version) {
+                found.put(id, entry.summary());
+            } else {
+                // The version is read before loading, so a change made during the load is not cached as current
+                missing.put(id, version);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            if (entries.size() + missing.size() > MAX_ENTRIES) {
+                entries.clear();
+            }
+            for (ProductSummary summary : loader.apply(new ArrayList<>(missing.keySet()))) {
+                Long version = missing.get(summary.getId());
+                if (version != null) {
+                    entries.put(summary.getId(), new Entry(version, summary));
+                    found.put(summary.getId(), summary);
+                }
+            }
+        }
+
+        List<ProductSummary> result = new ArrayList<>(found.size());
+        for (String id : ids) {
+            ProductSummary summary = found.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+}
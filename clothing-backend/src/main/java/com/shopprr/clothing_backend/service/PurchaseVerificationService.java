@@ -0,0 +1,104 @@
+package com.shopprr.clothing_backend.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.shopprr.clothing_backend.model.CustomerPurchases;
+import com.shopprr.clothing_backend.model.Order;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers "has this customer ordered this product, and when first?" for verified reviews.
+ * Order creation records every ordered product in the customer's {@link CustomerPurchases}
+ * document, so the check is a single read by _id that projects one map entry. Orders placed before
+ * that document existed are found through the {@code user_product_created} index on orders,
+ * and the answer is then recorded so the next check takes the fast path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseVerificationService {
+    private final MongoTemplate mongoTemplate;
+
+    // $min keeps the earliest order date when the same product is ordered again
+    public void recordPurchases(List<Order> orders) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerPurchases.class);
+        int writes = 0;
+        for (Order order : orders) {
+            if (order.getUser() == null || order.getItems() == null) {
+                continue;
+            }
+            Update update = new Update();
+            for (Order.OrderItem item : order.getItems()) {
+                // Ids become field names, so only plain ObjectId hex strings are accepted
+                if (ObjectId.isValid(item.getProduct())) {
+                    update.min("products." + item.getProduct(), order.getCreatedAt());
+                }
+            }
+            if (!update.getUpdateObject().isEmpty()) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(order.getUser().getId())), update);
+                writes++;
+            }
+        }
+        if (writes == 0) {
+            return;
+        }
+
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // The order is already placed; the orders index still answers for these purchases
+            log.warn("Could not record purchases for {} orders: {}", orders.size(), e.getMessage());
+        }
+    }
+
+    public Optional<LocalDateTime> firstPurchase(String userId, String productId) {
+        if (!ObjectId.isValid(productId)) {
+            return Optional.empty();
+        }
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("products." + productId);
+        CustomerPurchases purchases = mongoTemplate.findOne(query, CustomerPurchases.class);
+        if (purchases != null && purchases.getProducts().containsKey(productId)) {
+            return Optional.of(purchases.getProducts().get(productId));
+        }
+
+        LocalDateTime ordered = firstOrderDate(userId, productId);
+        if (ordered != null) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().min("products." + productId, ordered), CustomerPurchases.class);
+        }
+        return Optional.ofNullable(ordered);
+    }
+
+    private LocalDateTime firstOrderDate(String userId, String productId) {
+        if (!ObjectId.isValid(userId)) {
+            return null;
+        }
+        // Read as a raw document so the user DBRef is matched as stored (user.$id) and never resolved
+        Query query = Query.query(Criteria.where("user.$id").is(new ObjectId(userId)).and("items.product").is(productId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(1);
+        query.fields().include("createdAt").exclude("_id");
+        Document order = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Order.class));
+        if (order == null || !(order.get("createdAt") instanceof Date createdAt)) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault());
+    }
+}
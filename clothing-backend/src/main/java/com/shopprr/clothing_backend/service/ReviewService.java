@@ -1,13 +1,29 @@
 package com.shopprr.clothing_backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.shopprr.clothing_backend.model.Review;
+import com.shopprr.clothing_backend.model.ReviewVote;
 import com.shopprr.clothing_backend.model.User;
 import com.shopprr.clothing_backend.repository.ReviewRepository;
+import com.shopprr.clothing_backend.repository.ReviewRepositoryCustom.FeedOrder;
 import com.shopprr.clothing_backend.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -15,8 +31,14 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 50;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
+    private final CatalogVersions catalogVersions;
+    private final PurchaseVerificationService purchaseVerificationService;
+    private final MongoTemplate mongoTemplate;
 
     public Review createReview(String userId, String productId, Integer rating, String title, String comment) {
         // Get user details
@@ -37,25 +59,158 @@ public class ReviewService {
                           "&background=3B82F6&color=fff";
         review.setUserAvatar(avatarUrl);
         
-        review.setVerified(false);
+        // One read of the customer's purchase document; verified means they have ordered this product
+        Optional<LocalDateTime> purchased = purchaseVerificationService.firstPurchase(userId, productId);
+        review.setVerified(purchased.isPresent());
+        review.setPurchaseDate(purchased.orElse(null));
         review.setCreatedAt(LocalDateTime.now());
         review.setUpdatedAt(LocalDateTime.now());
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        catalogVersions.reviewsChanged(productId);
+        return saved;
     }
 
     public List<Review> getProductReviews(String productId) {
         return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId);
     }
 
+    /**
+     * One page of the review feed. {@code cursor} is the {@code nextCursor} of the previous page;
+     * it is opaque to clients and only valid for the same order.
+     */
+    public Map<String, Object> getReviewPage(String productId, Integer rating, FeedOrder order, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Review after = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : null;
+
+        // One extra review tells whether another page exists
+        List<Review> reviews = reviewRepository.findFeedPage(productId, rating, order, after, pageSize + 1);
+        boolean hasMore = reviews.size() > pageSize;
+        if (hasMore) {
+            reviews = reviews.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("reviews", reviews);
+        page.put("count", reviews.size());
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? encodeCursor(reviews.get(reviews.size() - 1)) : null);
+        return page;
+    }
+
+    // Counts one vote per user; returns false if the user already voted
+    public boolean markHelpful(String reviewId, String userId) {
+        Query byId = Query.query(Criteria.where("_id").is(reviewId));
+        byId.fields().include("productId");
+        Review review = mongoTemplate.findOne(byId, Review.class);
+        if (review == null) {
+            throw new RuntimeException("Review not found");
+        }
+        ReviewVote vote = new ReviewVote();
+        vote.setReviewId(reviewId);
+        vote.setUserId(userId);
+        vote.setCreatedAt(LocalDateTime.now());
+        try {
+            mongoTemplate.insert(vote);
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(reviewId)),
+                new Update().inc("helpfulCount", 1), Review.class);
+        catalogVersions.reviewsChanged(review.getProductId());
+        return true;
+    }
+
+    // helpfulCount|createdAt epoch millis|id; createdAt is stored with millisecond precision
+    static String encodeCursor(Review last) {
+        long createdAt = last.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int helpfulCount = last.getHelpfulCount() != null ? last.getHelpfulCount() : 0;
+        String raw = helpfulCount + "|" + createdAt + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Review decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            Review after = new Review();
+            after.setHelpfulCount(Integer.parseInt(parts[0]));
+            after.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[1])), ZoneId.systemDefault()));
+            after.setId(parts[2]);
+            return after;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     public List<Review> getUserReviews(String userId) {
         return reviewRepository.findByUserId(userId);
     }
 
-    public void deleteReview(String reviewId) {
-        if (!reviewRepository.existsById(reviewId)) {
-            throw new RuntimeException("Review not found");
+    // The rating histogram is grouped by the server (covered by the product/rating indexes) instead of loading every review
+    public Map<String, Object> getProductStats(String productId) {
+        return statsFromHistogram(mongoTemplate.aggregate(statsHistogram(productId), Review.class, Document.class));
+    }
+
+    // Review count per rating of one product; also run by the reactive stats endpoint
+    public static Aggregation statsHistogram(String productId) {
+        return Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("productId").is(productId)),
+                Aggregation.group("rating").count().as("count"));
+    }
+
+    public static Map<String, Object> statsFromHistogram(Iterable<Document> buckets) {
+        long[] counts = new long[6];
+        long totalReviews = 0;
+        long totalRating = 0;
+        for (Document bucket : buckets) {
+            int rating = bucket.get("_id") instanceof Number number ? number.intValue() : 0;
+            long count = ((Number) bucket.get("count")).longValue();
+            totalReviews += count;
+            totalRating += rating * count;
+            if (rating >= 1 && rating <= 5) {
+                counts[rating] += count;
+            }
+        }
+        return statsFromCounts((int) totalReviews, totalRating, counts);
+    }
+
+    // Single pass over the reviews; the distribution is only filled when there is at least one review
+    public static Map<String, Object> computeStats(List<Review> reviews) {
+        long[] counts = new long[6];
+        long totalRating = 0;
+        for (Review review : reviews) {
+            int rating = review.getRating();
+            totalRating += rating;
+            if (rating >= 1 && rating <= 5) {
+                counts[rating]++;
+            }
+        }
+        int totalReviews = reviews.size();
+        return statsFromCounts(totalReviews, totalRating, counts);
+    }
+
+    static Map<String, Object> statsFromCounts(int totalReviews, long totalRating, long[] counts) {
+        double averageRating = 0.0;
+        Map<Integer, Long> ratingDistribution = new HashMap<>();
+        if (totalReviews > 0) {
+            averageRating = (double) totalRating / totalReviews;
+            for (int rating = 1; rating <= 5; rating++) {
+                ratingDistribution.put(rating, counts[rating]);
+            }
         }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalReviews", totalReviews);
+        stats.put("averageRating", Math.round(averageRating * 10.0) / 10.0);
+        stats.put("ratingDistribution", ratingDistribution);
+        return stats;
+    }
+
+    public void deleteReview(String reviewId) {
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
         reviewRepository.deleteById(reviewId);
+        mongoTemplate.remove(Query.query(Criteria.where("reviewId").is(reviewId)), ReviewVote.class);
+        catalogVersions.reviewsChanged(review.getProductId());
     }
 }
@@ -1,25 +1,41 @@
 package com.shopprr.clothing_backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.shopprr.clothing_backend.dto.CustomerSummary;
 import com.shopprr.clothing_backend.model.User;
 import com.shopprr.clothing_backend.repository.OrderRepository;
 import com.shopprr.clothing_backend.repository.UserRepository;
+import com.shopprr.clothing_backend.repository.UserRepositoryCustom.ListOrder;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int CART_UPDATE_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MongoTemplate mongoTemplate;
+    private final VersionedUpdates versionedUpdates;
 
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -35,12 +51,21 @@ public class UserService {
 
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setOrderStats(new User.OrderStats());
         return userRepository.save(user);
     }
 
-    public User updateUser(String id, User user) {
-        user.setId(id);
-        return userRepository.save(user);
+    /**
+     * Writes only the fields in {@code update}, leaving the password hash and cart untouched.
+     * @throws VersionConflictException if {@code expectedVersion} is given and no longer current
+     */
+    public User patchUser(String id, Long expectedVersion, Update update) {
+        update.set("updatedAt", LocalDateTime.now());
+        Document set = update.getUpdateObject().get("$set", Document.class);
+        if (set != null && set.containsKey("name")) {
+            update.set("nameKey", User.nameKey((String) set.get("name")));
+        }
+        return versionedUpdates.apply(User.class, id, expectedVersion, update);
     }
 
     public void deleteUser(String id) {
@@ -55,11 +80,32 @@ public class UserService {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
 
+    // Reads and writes only the cart; a concurrent cart change (e.g. a second tab) is retried on the fresh cart
     public void updateCartData(String userId, String itemId, String size, Integer quantity) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Map<String, Map<String, Integer>> cartData = user.getCartData();
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("cartData").include("version");
+        for (int attempt = 1; ; attempt++) {
+            User user = mongoTemplate.findOne(query, User.class);
+            if (user == null) {
+                throw new RuntimeException("User not found");
+            }
+
+            Map<String, Map<String, Integer>> cartData = applyCartChange(user.getCartData(), itemId, size, quantity);
+            try {
+                versionedUpdates.apply(User.class, userId, user.getVersion(),
+                        new Update().set("cartData", cartData), false, "_id");
+                return;
+            } catch (VersionConflictException e) {
+                if (attempt == CART_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Sets (quantity > 0) or removes one item/size line and drops items that have no sizes left
+    public static Map<String, Map<String, Integer>> applyCartChange(
+            Map<String, Map<String, Integer>> cartData, String itemId, String size, Integer quantity) {
         if (cartData == null) {
             cartData = new HashMap<>();
         }
@@ -76,9 +122,7 @@ public class UserService {
         } else {
             cartData.put(itemId, itemSizes);
         }
-        
-        user.setCartData(cartData);
-        userRepository.save(user);
+        return cartData;
     }
 
     public List<com.shopprr.clothing_backend.model.Order> getAllOrders() {
@@ -88,4 +132,68 @@ public class UserService {
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
+
+    /**
+     * One page of the admin user list, display fields only. {@code search} is a name prefix, or an
+     * email prefix when it contains '@'; without one, {@code bySpend} lists the highest lifetime
+     * spend first. {@code cursor} is the {@code nextCursor} of the previous page of the same listing.
+     */
+    public Map<String, Object> getUserPage(String search, boolean bySpend, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String prefix = search != null ? search.trim() : "";
+        if (bySpend && !prefix.isEmpty()) {
+            throw new IllegalArgumentException("Search results are listed by name or email");
+        }
+        ListOrder order = bySpend ? ListOrder.SPEND : prefix.contains("@") ? ListOrder.EMAIL : ListOrder.NAME;
+        User after = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor, order) : null;
+
+        // One extra user tells whether another page exists
+        List<User> users = userRepository.findListPage(order, prefix, after, pageSize + 1, CustomerSummary.FIELDS);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("users", users.stream().map(CustomerSummary::from).toList());
+        page.put("count", users.size());
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? encodeCursor(users.get(users.size() - 1), order) : null);
+        return page;
+    }
+
+    // order|id|sort key; the key goes last because names may contain the separator
+    static String encodeCursor(User last, ListOrder order) {
+        String key = switch (order) {
+            case EMAIL -> last.getEmail();
+            case SPEND -> String.valueOf(last.getOrderStats().getLifetimeSpend());
+            default -> last.getNameKey();
+        };
+        String raw = order + "|" + last.getId() + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static User decodeCursor(String cursor, ListOrder order) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !order.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        User after = new User();
+        after.setId(parts[1]);
+        try {
+            switch (order) {
+                case EMAIL -> after.setEmail(parts[2]);
+                case SPEND -> after.getOrderStats().setLifetimeSpend(Double.parseDouble(parts[2]));
+                default -> after.setNameKey(parts[2]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return after;
+    }
 }
@@ -0,0 +1,21 @@
+package com.shopprr.clothing_backend.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import lombok.Getter;
+
+// A versioned update lost to a concurrent edit; clients should reload and re-apply their change
+@Getter
+public class VersionConflictException extends OptimisticLockingFailureException {
+    private final String id;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public VersionConflictException(String type, String id, Long expectedVersion, Long currentVersion) {
+        super(type + " " + id + " was modified by someone else (expected version " + expectedVersion
+                + ", current version " + currentVersion + ")");
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+}
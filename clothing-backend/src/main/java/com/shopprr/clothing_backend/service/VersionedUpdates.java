@@ -0,0 +1,61 @@
+package com.shopprr.clothing_backend.service;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Field-level writes for the {@code @Version}ed documents (orders, products, users). The update
+ * carries only the changed fields plus {@code $inc version}, and when the caller knows which
+ * version it edited the write is conditional on it, so concurrent edits fail with a
+ * {@link VersionConflictException} instead of overwriting each other.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersionedUpdates {
+    private final MongoTemplate mongoTemplate;
+
+    // Returns the updated document
+    public <T> T apply(Class<T> type, String id, Long expectedVersion, Update update) {
+        return apply(type, id, expectedVersion, update, true);
+    }
+
+    /**
+     * @param expectedVersion the version the client edited, or null to apply the change unconditionally
+     * @param fields projection for the returned document; empty returns the whole document
+     * @return the document after the update ({@code returnNew}) or before it
+     */
+    public <T> T apply(Class<T> type, String id, Long expectedVersion, Update update, boolean returnNew, String... fields) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+        if (fields.length > 0) {
+            query.fields().include(fields).include("version");
+        }
+        update.inc("version", 1);
+
+        T result = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(returnNew), type);
+        if (result != null) {
+            return result;
+        }
+
+        // Nothing matched: tell a missing document apart from a stale version
+        Query current = Query.query(Criteria.where("_id").is(id));
+        current.fields().include("version");
+        T existing = mongoTemplate.findOne(current, type);
+        if (existing == null) {
+            throw new RuntimeException(type.getSimpleName() + " not found");
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Object version = entity.getPropertyAccessor(existing).getProperty(entity.getRequiredVersionProperty());
+        throw new VersionConflictException(type.getSimpleName(), id, expectedVersion, (Long) version);
+    }
+}
@@ -0,0 +1,49 @@
+package com.shopprr.clothing_backend.tools;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.shopprr.clothing_backend.dto.ImportReport;
+import com.shopprr.clothing_backend.service.CatalogImportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command-line entry point for the catalog import, e.g.
+ * {@code ./gradlew bootRun --args='--catalog.import.file=mongodb_collections/products.json --spring.main.web-application-type=none'}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.import.file")
+public class CatalogImportRunner implements ApplicationRunner {
+    private final CatalogImportService catalogImportService;
+
+    @Value("${catalog.import.file}")
+    private String file;
+
+    @Value("${catalog.import.batch-size:" + CatalogImportService.DEFAULT_BATCH_SIZE + "}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing products from {}", file);
+        try (InputStream in = Files.newInputStream(Path.of(file))) {
+            ImportReport report = catalogImportService.importProducts(in, batchSize);
+            for (ImportReport.RecordError error : report.getErrors()) {
+                log.warn("Record {} ({}): {}", error.getRecord(), error.getId(), error.getMessage());
+            }
+            if (report.isErrorsTruncated()) {
+                log.warn("Only the first {} errors were listed", report.getErrors().size());
+            }
+        }
+    }
+}
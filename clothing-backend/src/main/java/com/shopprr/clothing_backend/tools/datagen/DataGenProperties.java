@@ -0,0 +1,24 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "datagen")
+public class DataGenProperties {
+    private boolean enabled = false;
+    private long seed = 42L;
+    private String fixturesDir = "mongodb_collections";
+    private String outputDir; // NDJSON export directory; when empty documents are bulk-inserted into Mongo
+    private boolean dropExisting = false;
+    private int batchSize = 1000;
+
+    private long users = 1_000;
+    private long categories = 6;
+    private long products = 5_000;
+    private long orders = 10_000;
+    private long reviews = 20_000;
+}
@@ -0,0 +1,61 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.shopprr.clothing_backend.service.CustomerOrderStatsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates a synthetic dataset on startup, e.g.
+ * {@code ./gradlew bootRun --args='--datagen.enabled=true --datagen.seed=7 --datagen.orders=10000000 --spring.main.web-application-type=none'}.
+ * Set {@code datagen.output-dir} to write NDJSON files instead of inserting into Mongo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+public class DataGenRunner implements ApplicationRunner {
+    private static final List<String> COLLECTIONS = List.of("categories", "products", "users", "orders", "reviews", "review_votes",
+            "customer_purchases", "order_tickets");
+
+    private final DataGenProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final CustomerOrderStatsService customerOrderStatsService;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        FixtureTemplates templates = FixtureTemplates.load(Path.of(properties.getFixturesDir()));
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(templates, properties);
+
+        boolean toFiles = properties.getOutputDir() != null && !properties.getOutputDir().isBlank();
+        if (!toFiles && properties.isDropExisting()) {
+            // Remove rather than drop: the running app has already created indexes, including the
+            // unique one on review_votes
+            COLLECTIONS.forEach(collection -> mongoTemplate.remove(new Query(), collection));
+        }
+
+        long start = System.currentTimeMillis();
+        try (DocumentSink sink = toFiles
+                ? new NdjsonFileSink(Path.of(properties.getOutputDir()))
+                : new MongoBulkSink(mongoTemplate, properties.getBatchSize())) {
+            Map<String, Long> counts = generator.generate(sink);
+            log.info("Generated {} (seed {}) in {} ms", counts, properties.getSeed(), System.currentTimeMillis() - start);
+        }
+        if (!toFiles) {
+            // The generated orders bypass OrderService, so the per-customer stats are computed afterwards
+            long customers = customerOrderStatsService.rebuild();
+            log.info("Rebuilt order stats for {} customers", customers);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.io.IOException;
+
+import org.bson.Document;
+
+// Destination for generated documents: Mongo bulk inserts or NDJSON files
+public interface DocumentSink extends AutoCloseable {
+    void write(String collection, Document document) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,107 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+
+import lombok.Getter;
+
+/**
+ * The documents in {@code mongodb_collections/*.json}, loaded once and used as templates by
+ * {@link SyntheticDataGenerator}. The fixtures are small, so they are parsed whole.
+ */
+@Getter
+public class FixtureTemplates {
+    private static final String FALLBACK_PASSWORD_HASH = "$2a$12$Njy57XIu6IfhY9ne6x5MgeB26HS0kBxWrEYLJFzwf95/xY6h2SniG";
+
+    private final List<Document> products;
+    private final List<Document> categories;
+    private final List<Document> reviews;
+    private final List<Document> addresses;
+    private final List<String> firstNames;
+    private final List<String> lastNames;
+    private final String passwordHash;
+
+    private FixtureTemplates(List<Document> products, List<Document> categories, List<Document> reviews,
+            List<Document> addresses, List<String> firstNames, List<String> lastNames, String passwordHash) {
+        this.products = products;
+        this.categories = categories;
+        this.reviews = reviews;
+        this.addresses = addresses;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.passwordHash = passwordHash;
+    }
+
+    public static FixtureTemplates load(Path directory) throws IOException {
+        List<Document> products = read(directory, "products.json");
+        List<Document> categories = read(directory, "categories.json");
+        List<Document> users = read(directory, "users.json");
+        List<Document> orders = read(directory, "orders.json");
+        List<Document> reviews = read(directory, "reviews.json");
+        if (products.isEmpty() || categories.isEmpty()) {
+            throw new IllegalStateException("products.json and categories.json must contain at least one document");
+        }
+
+        // Collect a name pool from every fixture that carries a person's name
+        Set<String> names = new LinkedHashSet<>();
+        users.forEach(user -> addName(names, user.getString("name")));
+        reviews.forEach(review -> addName(names, review.getString("userName")));
+        for (String other : List.of("testimonials.json", "contacts.json")) {
+            if (Files.exists(directory.resolve(other))) {
+                read(directory, other).forEach(doc -> addName(names, doc.getString("name")));
+            }
+        }
+
+        List<Document> addresses = new ArrayList<>();
+        for (Document order : orders) {
+            Document address = order.get("address", Document.class);
+            if (address != null) {
+                addresses.add(address);
+                addName(names, address.getString("firstName") + " " + address.getString("lastName"));
+            }
+        }
+
+        Set<String> firstNames = new LinkedHashSet<>();
+        Set<String> lastNames = new LinkedHashSet<>();
+        for (String name : names) {
+            String[] parts = name.trim().split("\\s+", 2);
+            if (parts.length == 2) {
+                firstNames.add(parts[0]);
+                lastNames.add(parts[1]);
+            }
+        }
+        if (firstNames.isEmpty()) {
+            firstNames.add("Alex");
+            lastNames.add("Nguyen");
+        }
+
+        String passwordHash = users.stream()
+                .filter(user -> "customer".equals(user.getString("role")))
+                .map(user -> user.getString("password"))
+                .findFirst()
+                .orElse(FALLBACK_PASSWORD_HASH);
+
+        return new FixtureTemplates(products, categories, reviews, addresses,
+                List.copyOf(firstNames), List.copyOf(lastNames), passwordHash);
+    }
+
+    private static List<Document> read(Path directory, String fileName) throws IOException {
+        // Document.parse only accepts objects, so wrap the top-level array
+        String json = Files.readString(directory.resolve(fileName), StandardCharsets.UTF_8);
+        return Document.parse("{\"items\": " + json + "}").getList("items", Document.class);
+    }
+
+    private static void addName(Set<String> names, String name) {
+        if (name != null && !name.isBlank() && !name.contains("null")) {
+            names.add(name.trim());
+        }
+    }
+}
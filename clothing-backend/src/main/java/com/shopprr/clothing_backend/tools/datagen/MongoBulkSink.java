@@ -0,0 +1,46 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.model.InsertManyOptions;
+
+// Buffers documents per collection and writes them with unordered insertMany batches
+public class MongoBulkSink implements DocumentSink {
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final Map<String, List<Document>> buffers = new HashMap<>();
+
+    public MongoBulkSink(MongoTemplate mongoTemplate, int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void write(String collection, Document document) {
+        List<Document> buffer = buffers.computeIfAbsent(collection, name -> new ArrayList<>(batchSize));
+        buffer.add(document);
+        if (buffer.size() >= batchSize) {
+            flush(collection, buffer);
+        }
+    }
+
+    @Override
+    public void close() {
+        buffers.forEach(this::flush);
+        buffers.clear();
+    }
+
+    private void flush(String collection, List<Document> buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        mongoTemplate.getCollection(collection).insertMany(buffer, new InsertManyOptions().ordered(false));
+        buffer.clear();
+    }
+}
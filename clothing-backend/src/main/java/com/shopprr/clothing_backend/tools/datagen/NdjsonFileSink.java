@@ -0,0 +1,44 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+// Writes one <collection>.ndjson file per collection in relaxed extended JSON (mongoimport compatible)
+public class NdjsonFileSink implements DocumentSink {
+    private static final JsonWriterSettings SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private final Path directory;
+    private final Map<String, BufferedWriter> writers = new HashMap<>();
+
+    public NdjsonFileSink(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public void write(String collection, Document document) throws IOException {
+        BufferedWriter writer = writers.get(collection);
+        if (writer == null) {
+            writer = Files.newBufferedWriter(directory.resolve(collection + ".ndjson"), StandardCharsets.UTF_8);
+            writers.put(collection, writer);
+        }
+        writer.write(document.toJson(SETTINGS));
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (BufferedWriter writer : writers.values()) {
+            writer.close();
+        }
+        writers.clear();
+    }
+}
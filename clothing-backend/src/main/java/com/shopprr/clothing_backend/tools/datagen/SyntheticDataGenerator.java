@@ -0,0 +1,356 @@
+package com.shopprr.clothing_backend.tools.datagen;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.mongodb.DBRef;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deterministic generator for users, categories, products, orders and reviews, built from the
+ * fixture documents. Every document is derived from (seed, collection, index) alone: ids are
+ * computed from the index and each document gets its own random stream, so orders and reviews can
+ * reference valid users and products without keeping anything in memory. The same seed and counts
+ * always produce the same data, whatever the scale.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    private static final int BASE_EPOCH_SECONDS = 1704067200; // ObjectId timestamp: 2024-01-01T00:00:00Z
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final long HISTORY_MINUTES = 2L * 365 * 24 * 60;
+    private static final long PROGRESS_EVERY = 1_000_000L;
+
+    private static final int USERS = 1;
+    private static final int CATEGORIES = 2;
+    private static final int PRODUCTS = 3;
+    private static final int ORDERS = 4;
+    private static final int REVIEWS = 5;
+    private static final int PRICES = 6;
+    private static final int NAMES = 7;
+
+    private static final String[] ORDER_STATUSES = {"pending", "processing", "shipped", "delivered", "delivered", "delivered", "cancelled"};
+    private static final int[] RATING_WEIGHTS = {7, 6, 12, 30, 45}; // percent for ratings 1..5
+    private static final String[] GENDERS = {"male", "female", "other"};
+
+    private final FixtureTemplates templates;
+    private final DataGenProperties properties;
+    private final long userCount;
+    private final long categoryCount;
+    private final long productCount;
+
+    public SyntheticDataGenerator(FixtureTemplates templates, DataGenProperties properties) {
+        this.templates = templates;
+        this.properties = properties;
+        this.userCount = Math.max(1, properties.getUsers());
+        this.categoryCount = Math.max(1, properties.getCategories());
+        this.productCount = Math.max(1, properties.getProducts());
+    }
+
+    public Map<String, Long> generate(DocumentSink sink) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("categories", generateCategories(sink));
+        counts.put("products", generateProducts(sink));
+        counts.put("users", generateUsers(sink));
+        counts.put("orders", generateOrders(sink));
+        counts.put("reviews", generateReviews(sink));
+        return counts;
+    }
+
+    // Deterministic ids: 4-byte fixed timestamp, 1-byte collection tag, 7-byte index
+    public static ObjectId objectId(int tag, long index) {
+        byte[] bytes = new byte[12];
+        bytes[0] = (byte) (BASE_EPOCH_SECONDS >>> 24);
+        bytes[1] = (byte) (BASE_EPOCH_SECONDS >>> 16);
+        bytes[2] = (byte) (BASE_EPOCH_SECONDS >>> 8);
+        bytes[3] = (byte) BASE_EPOCH_SECONDS;
+        bytes[4] = (byte) tag;
+        for (int i = 0; i < 7; i++) {
+            bytes[11 - i] = (byte) (index >>> (8 * i));
+        }
+        return new ObjectId(bytes);
+    }
+
+    public static ObjectId userId(long index) {
+        return objectId(USERS, index);
+    }
+
+    public static ObjectId productId(long index) {
+        return objectId(PRODUCTS, index);
+    }
+
+    public static String userEmail(long index, String name) {
+        return name.toLowerCase().replaceAll("[^a-z]+", ".") + "." + index + "@example.com";
+    }
+
+    private long generateCategories(DocumentSink sink) throws IOException {
+        for (long i = 0; i < categoryCount; i++) {
+            Document template = templates.getCategories().get((int) (i % templates.getCategories().size()));
+            Document category = new Document("_id", objectId(CATEGORIES, i))
+                    .append("name", categoryName(i))
+                    .append("slug", template.getString("slug") + suffix(i, templates.getCategories().size(), "-"))
+                    .append("description", template.getString("description"))
+                    .append("image", template.getString("image"))
+                    .append("isActive", true)
+                    .append("createdAt", date(random(CATEGORIES, i)))
+                    .append("updatedAt", Date.from(NOW));
+            sink.write("categories", category);
+        }
+        return categoryCount;
+    }
+
+    private long generateProducts(DocumentSink sink) throws IOException {
+        List<Document> productTemplates = templates.getProducts();
+        for (long i = 0; i < productCount; i++) {
+            SplittableRandom random = random(PRODUCTS, i);
+            Document template = template(i);
+            double[] prices = prices(i);
+
+            long category = categoryIndex(template.getString("category"));
+            if (category < 0 || category >= categoryCount || i >= productTemplates.size()) {
+                category = random.nextLong(categoryCount);
+            }
+
+            Date createdAt = date(random);
+            Document product = new Document("_id", productId(i))
+                    .append("name", template.getString("name") + (i < productTemplates.size() ? "" : " #" + i))
+                    .append("description", template.getString("description"))
+                    .append("image", template.get("image"))
+                    .append("price", prices[0])
+                    .append("offerPrice", prices[1])
+                    .append("category", categoryName(category))
+                    .append("sizes", template.get("sizes"))
+                    .append("colors", template.get("colors"))
+                    .append("details", template.get("details"))
+                    .append("popular", random.nextInt(100) < 8)
+                    .append("inStock", random.nextInt(100) < 95)
+                    .append("hasDiscount", false)
+                    .append("discountPercent", 0.0)
+                    .append("createdAt", createdAt)
+                    .append("updatedAt", createdAt)
+                    .append("version", 0L);
+            sink.write("products", product);
+            progress("products", i);
+        }
+        return productCount;
+    }
+
+    private long generateUsers(DocumentSink sink) throws IOException {
+        for (long i = 0; i < userCount; i++) {
+            SplittableRandom random = random(USERS, i);
+            String name = userName(i);
+
+            Document cart = new Document();
+            if (random.nextInt(100) < 30) {
+                int lines = 1 + random.nextInt(3);
+                for (int line = 0; line < lines; line++) {
+                    long product = pickProduct(random);
+                    cart.append(productId(product).toHexString(),
+                            new Document(pickSize(product, random), 1 + random.nextInt(3)));
+                }
+            }
+
+            Date createdAt = date(random);
+            Document user = new Document("_id", userId(i))
+                    .append("name", name)
+                    .append("nameKey", name.toLowerCase(Locale.ROOT))
+                    .append("email", userEmail(i, name))
+                    .append("password", templates.getPasswordHash())
+                    .append("phone", String.format("+849%08d", random.nextInt(100_000_000)))
+                    .append("age", 18 + random.nextInt(50))
+                    .append("gender", GENDERS[random.nextInt(GENDERS.length)])
+                    .append("cartData", cart)
+                    // the first user is an admin so generated datasets can be used for admin flows
+                    .append("role", i == 0 ? "admin" : "customer")
+                    .append("emailVerified", random.nextBoolean())
+                    .append("isActive", true)
+                    .append("createdAt", createdAt)
+                    .append("updatedAt", createdAt)
+                    .append("version", 0L);
+            sink.write("users", user);
+            progress("users", i);
+        }
+        return userCount;
+    }
+
+    private long generateOrders(DocumentSink sink) throws IOException {
+        long count = properties.getOrders();
+        for (long i = 0; i < count; i++) {
+            SplittableRandom random = random(ORDERS, i);
+            long user = random.nextLong(userCount);
+
+            List<Document> items = new ArrayList<>();
+            double total = 0.0;
+            int lines = 1 + random.nextInt(4);
+            for (int line = 0; line < lines; line++) {
+                long product = pickProduct(random);
+                int quantity = 1 + random.nextInt(3);
+                double price = prices(product)[1];
+                total += price * quantity;
+                items.add(new Document("product", productId(product).toHexString())
+                        .append("quantity", quantity)
+                        .append("size", pickSize(product, random))
+                        .append("price", price));
+            }
+
+            String[] name = userName(user).split(" ", 2);
+            Document address = new Document(pickAddress(random))
+                    .append("firstName", name[0])
+                    .append("lastName", name.length > 1 ? name[1] : "")
+                    .append("email", userEmail(user, userName(user)));
+
+            Date createdAt = date(random);
+            Document order = new Document("_id", objectId(ORDERS, i))
+                    .append("user", new DBRef("users", userId(user)))
+                    .append("items", items)
+                    .append("address", address)
+                    .append("paymentMethod", random.nextInt(100) < 70 ? "COD" : "Stripe")
+                    .append("totalAmount", total)
+                    .append("status", ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)])
+                    .append("createdAt", createdAt)
+                    .append("updatedAt", Date.from(createdAt.toInstant().plus(Duration.ofHours(random.nextInt(240)))))
+                    .append("version", 0L);
+            sink.write("orders", order);
+            progress("orders", i);
+        }
+        return count;
+    }
+
+    private long generateReviews(DocumentSink sink) throws IOException {
+        long count = properties.getReviews();
+        List<Document> reviewTemplates = templates.getReviews();
+        for (long i = 0; i < count; i++) {
+            SplittableRandom random = random(REVIEWS, i);
+            long product = pickProduct(random);
+            long user = random.nextLong(userCount);
+            String name = userName(user);
+
+            String title = "Great product";
+            String comment = "Good quality and fast delivery, would definitely buy again.";
+            if (!reviewTemplates.isEmpty()) {
+                Document template = reviewTemplates.get(random.nextInt(reviewTemplates.size()));
+                title = template.getString("title");
+                comment = template.getString("comment");
+            }
+
+            Date createdAt = date(random);
+            boolean verified = random.nextInt(100) < 60;
+            Document review = new Document("_id", objectId(REVIEWS, i))
+                    .append("productId", productId(product).toHexString())
+                    .append("userId", userId(user).toHexString())
+                    .append("rating", pickRating(random))
+                    .append("title", title)
+                    .append("comment", comment)
+                    .append("userName", name)
+                    .append("userAvatar", "https://ui-avatars.com/api/?name=" + name.replace(" ", "+") + "&background=3B82F6&color=fff")
+                    .append("verified", verified)
+                    .append("purchaseDate", verified ? Date.from(createdAt.toInstant().minus(Duration.ofDays(1 + random.nextInt(30)))) : null)
+                    .append("helpfulCount", random.nextInt(100) < 25 ? 1 + random.nextInt(40) : 0)
+                    .append("createdAt", createdAt)
+                    .append("updatedAt", createdAt);
+            sink.write("reviews", review);
+            progress("reviews", i);
+        }
+        return count;
+    }
+
+    private SplittableRandom random(int stream, long index) {
+        return new SplittableRandom(properties.getSeed() * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index);
+    }
+
+    private Document template(long productIndex) {
+        List<Document> productTemplates = templates.getProducts();
+        return productTemplates.get((int) (productIndex % productTemplates.size()));
+    }
+
+    // Prices have their own stream so orders can recompute a product's offer price from its index
+    private double[] prices(long productIndex) {
+        SplittableRandom random = random(PRICES, productIndex);
+        Object templatePrice = template(productIndex).get("price");
+        double base = templatePrice instanceof Number number ? number.doubleValue() : 299000.0;
+        double price = Math.round(base * (0.8 + 0.4 * random.nextDouble()) / 1000.0) * 1000.0;
+        double offerPrice = Math.min(price, Math.round(price * (0.7 + 0.3 * random.nextDouble()) / 1000.0) * 1000.0);
+        return new double[] {price, offerPrice};
+    }
+
+    private String userName(long userIndex) {
+        SplittableRandom random = random(NAMES, userIndex);
+        List<String> first = templates.getFirstNames();
+        List<String> last = templates.getLastNames();
+        return first.get(random.nextInt(first.size())) + " " + last.get(random.nextInt(last.size()));
+    }
+
+    private String categoryName(long index) {
+        List<Document> categoryTemplates = templates.getCategories();
+        Document template = categoryTemplates.get((int) (index % categoryTemplates.size()));
+        return template.getString("name") + suffix(index, categoryTemplates.size(), " ");
+    }
+
+    private long categoryIndex(String name) {
+        List<Document> categoryTemplates = templates.getCategories();
+        for (int i = 0; i < categoryTemplates.size(); i++) {
+            if (categoryTemplates.get(i).getString("name").equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Squared uniform skews traffic toward low indexes, giving a few best sellers and a long tail
+    private long pickProduct(SplittableRandom random) {
+        double u = random.nextDouble();
+        return Math.min(productCount - 1, (long) (productCount * u * u));
+    }
+
+    private String pickSize(long productIndex, SplittableRandom random) {
+        List<?> sizes = template(productIndex).get("sizes", List.class);
+        if (sizes == null || sizes.isEmpty()) {
+            return "M";
+        }
+        return String.valueOf(sizes.get(random.nextInt(sizes.size())));
+    }
+
+    private Document pickAddress(SplittableRandom random) {
+        List<Document> addresses = templates.getAddresses();
+        if (addresses.isEmpty()) {
+            return new Document("street", "1 Main Street").append("city", "Ho Chi Minh City").append("country", "Vietnam");
+        }
+        return addresses.get(random.nextInt(addresses.size()));
+    }
+
+    private int pickRating(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < RATING_WEIGHTS.length; i++) {
+            roll -= RATING_WEIGHTS[i];
+            if (roll < 0) {
+                return i + 1;
+            }
+        }
+        return 5;
+    }
+
+    private Date date(SplittableRandom random) {
+        return Date.from(NOW.minus(Duration.ofMinutes(random.nextLong(HISTORY_MINUTES))));
+    }
+
+    private String suffix(long index, int templateCount, String separator) {
+        return index < templateCount ? "" : separator + (index / templateCount + 1);
+    }
+
+    private void progress(String collection, long index) {
+        if (index > 0 && index % PROGRESS_EVERY == 0) {
+            log.info("Generated {} {}", index, collection);
+        }
+    }
+}
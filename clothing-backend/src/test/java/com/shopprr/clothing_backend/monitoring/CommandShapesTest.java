@@ -0,0 +1,65 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+class CommandShapesTest {
+
+	@Test
+	void redactsLiteralsAndKeepsStructure() {
+		BsonDocument command = BsonDocument.parse("{find: 'users', filter: {email: 'jane@example.com', age: {$gte: 30},"
+				+ " _id: {$in: [1, 2, 3]}}, sort: {createdAt: -1}, limit: 20, lsid: {id: 1}, $db: 'shopprr'}");
+
+		BsonDocument shape = CommandShapes.shapeOf(command, "find");
+
+		assertEquals(BsonDocument.parse("{find: 'users', filter: {email: '?', age: {$gte: '?'}, _id: {$in: ['?']}},"
+				+ " sort: {createdAt: -1}, limit: '?'}"), shape);
+	}
+
+	@Test
+	void keepsFieldPathsInPipelines() {
+		BsonDocument command = BsonDocument.parse("{aggregate: 'reviews', pipeline: [{$match: {productId: 'p1'}},"
+				+ " {$group: {_id: '$rating', count: {$sum: 1}}}], cursor: {}}");
+
+		BsonDocument shape = CommandShapes.shapeOf(command, "aggregate");
+
+		assertEquals(BsonDocument.parse("{aggregate: 'reviews', pipeline: [{$match: {productId: '?'}},"
+				+ " {$group: {_id: '$rating', count: {$sum: '?'}}}], cursor: {}}"), shape);
+	}
+
+	@Test
+	void retainDropsSessionFieldsAndGivesUpPastTheCap() {
+		BsonDocument command = BsonDocument.parse("{find: 'products', filter: {category: 'Men', price: {$lt: 50}},"
+				+ " limit: 20, lsid: {id: 1}, $db: 'shopprr'}");
+
+		assertEquals(BsonDocument.parse("{find: 'products', filter: {category: 'Men', price: {$lt: 50}}, limit: 20}"),
+				CommandShapes.retain(command, 1024));
+		assertNull(CommandShapes.retain(command, 16));
+	}
+
+	@Test
+	void countsBulkWriteStatements() {
+		BsonDocument command = BsonDocument.parse("{update: 'products', updates: [{q: {_id: 1}, u: {$set: {price: 10}}},"
+				+ " {q: {_id: 2}, u: {$set: {price: 20}}}], ordered: false}");
+
+		assertEquals(2, CommandShapes.statementCount(command));
+	}
+
+	@Test
+	void redactsLiteralsRepeatedInExplainOutput() {
+		BsonDocument explain = BsonDocument.parse("{queryPlanner: {parsedQuery: {email: {$eq: 'jane@example.com'}},"
+				+ " winningPlan: {stage: 'FETCH', filter: {age: {$gte: 30}}, inputStage: {stage: 'IXSCAN',"
+				+ " indexName: 'email_1', indexBounds: {email: ['[\"jane@example.com\", \"jane@example.com\"]']}}}},"
+				+ " executionStats: {nReturned: 1, totalDocsExamined: 1},"
+				+ " command: {find: 'users', filter: {email: 'jane@example.com'}, $db: 'shopprr'}}");
+
+		assertEquals(BsonDocument.parse("{queryPlanner: {parsedQuery: {email: {$eq: '?'}},"
+				+ " winningPlan: {stage: 'FETCH', filter: {age: {$gte: '?'}}, inputStage: {stage: 'IXSCAN',"
+				+ " indexName: 'email_1', indexBounds: {email: ['?']}}}},"
+				+ " executionStats: {nReturned: 1, totalDocsExamined: 1},"
+				+ " command: {find: 'users', filter: {email: '?'}}}"), CommandShapes.redactExplain(explain));
+	}
+}
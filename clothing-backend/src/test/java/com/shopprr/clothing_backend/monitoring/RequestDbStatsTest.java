@@ -0,0 +1,39 @@
+package com.shopprr.clothing_backend.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class RequestDbStatsTest {
+
+	@Test
+	void countsWorkPropagatedToOtherThreads() {
+		RequestDbStats stats = RequestDbStats.measure(() -> {
+			RequestDbStats.current().commandStarted("find", "orders");
+			CompletableFuture.supplyAsync(RequestDbStats.propagate(() -> {
+				RequestDbStats.current().commandStarted("find", "users");
+				return null;
+			})).join();
+		});
+
+		assertEquals(2, stats.getRoundTrips());
+		assertNull(RequestDbStats.current());
+	}
+
+	@Test
+	void failsWhenRoundTripBudgetIsExceeded() {
+		RequestDbStats stats = RequestDbStats.measure(() -> {
+			for (int i = 0; i < 3; i++) {
+				RequestDbStats.current().commandStarted("find", "users");
+			}
+		});
+
+		stats.assertRoundTripsAtMost(3);
+		AssertionError error = assertThrows(AssertionError.class, () -> stats.assertRoundTripsAtMost(1));
+		assertEquals("Expected at most 1 Mongo round trips but was 3: [find users, find users, find users]", error.getMessage());
+	}
+}
@@ -0,0 +1,45 @@
+package com.shopprr.clothing_backend.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstThenRefillsOneTokenPerInterval() {
+		TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, bucket.tryAcquire(0));
+		}
+		assertEquals(SECOND, bucket.tryAcquire(0));
+		assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+
+		assertEquals(0, bucket.tryAcquire(SECOND));
+		assertEquals(SECOND, bucket.tryAcquire(SECOND));
+	}
+
+	@Test
+	void isFullOnceAllTokensHaveRefilled() {
+		TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+		bucket.tryAcquire(0);
+		bucket.tryAcquire(0);
+
+		assertFalse(bucket.isFull(SECOND));
+		assertTrue(bucket.isFull(2 * SECOND));
+	}
+
+	@Test
+	void waitNanosDoesNotTakeAToken() {
+		TokenBucket bucket = new TokenBucket(1, SECOND, 0);
+
+		assertEquals(0, bucket.waitNanos(0));
+		assertEquals(0, bucket.waitNanos(0));
+		assertEquals(0, bucket.tryAcquire(0));
+		assertEquals(SECOND, bucket.waitNanos(0));
+	}
+}
@@ -0,0 +1,86 @@
+package com.shopprr.clothing_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.shopprr.clothing_backend.model.Product;
+
+class CatalogImportServiceTest {
+	private final MappingMongoConverter converter = converter();
+
+	@Test
+	void partialRecordOnlySetsItsOwnFields() {
+		Document source = Document.parse("{_id: 'p1', price: 25.5}");
+		Product product = converter.read(Product.class, source);
+		Document converted = new Document();
+		converter.write(product, converted);
+
+		assertNull(CatalogImportService.validate(product, source));
+		assertFalse(CatalogImportService.isComplete(source));
+		Document update = CatalogImportService.upsert(source, converted).getUpdateObject();
+
+		Document set = update.get("$set", Document.class);
+		assertEquals(25.5, set.get("price"));
+		assertEquals(2, set.size(), set::toJson); // price and updatedAt
+		assertTrue(set.containsKey("updatedAt"));
+		Document setOnInsert = update.get("$setOnInsert", Document.class);
+		for (String kept : new String[] {"image", "sizes", "colors", "popular", "inStock", "hasDiscount",
+				"discountPercent", "createdAt"}) {
+			assertTrue(setOnInsert.containsKey(kept), kept);
+		}
+		assertEquals(new Document("version", 1), update.get("$inc"));
+	}
+
+	@Test
+	void createdAtIsOnlyWrittenForNewProducts() {
+		Document source = Document.parse("{_id: 'p1', name: 'Tee', category: 'Men', price: 10,"
+				+ " createdAt: {$date: '2024-01-01T00:00:00Z'}}");
+		Product product = converter.read(Product.class, source);
+		Document converted = new Document();
+		converter.write(product, converted);
+
+		assertTrue(CatalogImportService.isComplete(source));
+		Document update = CatalogImportService.upsert(source, converted).getUpdateObject();
+
+		assertFalse(update.get("$set", Document.class).containsKey("createdAt"));
+		assertTrue(update.get("$setOnInsert", Document.class).containsKey("createdAt"));
+	}
+
+	@Test
+	void newProductsNeedNameCategoryAndPrice() {
+		Document source = Document.parse("{price: 10}");
+
+		assertEquals("Product name is required",
+				CatalogImportService.validate(converter.read(Product.class, source), source));
+	}
+
+	@Test
+	void fieldsPresentInAPartialRecordAreStillChecked() {
+		Document source = Document.parse("{_id: 'p1', name: ' ', price: 10}");
+
+		assertEquals("Product name is required",
+				CatalogImportService.validate(converter.read(Product.class, source), source));
+	}
+
+	// The same mapping as the app's MongoTemplate, without a database
+	private static MappingMongoConverter converter() {
+		MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
@@ -0,0 +1,31 @@
+package com.shopprr.clothing_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class OrderServiceTest {
+
+	@Test
+	void statusesOnlyMoveForward() {
+		assertTrue(OrderService.canTransition("pending", "Packing"));
+		assertTrue(OrderService.canTransition("Order Placed", "processing"));
+		assertTrue(OrderService.canTransition("shipped", "shipped"));
+		assertFalse(OrderService.canTransition("delivered", "shipped"));
+		assertFalse(OrderService.canTransition("shipped", "made-up"));
+	}
+
+	@Test
+	void cancellationOnlyBeforeShippingAndFinal() {
+		assertTrue(OrderService.canTransition("processing", "cancelled"));
+		assertFalse(OrderService.canTransition("shipped", "cancelled"));
+		assertFalse(OrderService.canTransition("cancelled", "pending"));
+	}
+
+	@Test
+	void unknownOrMissingSourceStatusMayMoveAnywhere() {
+		assertTrue(OrderService.canTransition(null, "delivered"));
+		assertTrue(OrderService.canTransition("legacy", "pending"));
+	}
+}